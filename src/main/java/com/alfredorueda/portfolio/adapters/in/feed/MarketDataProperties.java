@@ -0,0 +1,31 @@
+package com.alfredorueda.portfolio.adapters.in.feed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of streamed market data.
+ *
+ * @param maxQuoteAge how long a streamed quote may be used to price trades before
+ *                    the price layer falls back to pulling from the provider
+ * @param replay the local replay feed used in place of a live tick feed
+ */
+@ConfigurationProperties(prefix = "market-data")
+public record MarketDataProperties(
+        @DefaultValue("5s") Duration maxQuoteAge,
+        @DefaultValue Replay replay) {
+
+    /**
+     * @param file CSV file of {@code offsetMillis,ticker,price} lines; the feed is disabled when unset
+     * @param speed replay speed multiplier, 0 replays as fast as possible
+     * @param loop whether to start over when the end of the file is reached
+     */
+    public record Replay(
+            Path file,
+            @DefaultValue("1.0") double speed,
+            @DefaultValue("true") boolean loop) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.alfredorueda.portfolio.adapters.in.feed;
+
+import com.alfredorueda.portfolio.application.port.in.MarketDataIngestionUseCase;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick feed that replays quotes from a local file, standing in for a live market data feed.
+ *
+ * Each line of the file has the form {@code offsetMillis,ticker,price}; blank lines and
+ * lines starting with {@code #} are skipped. Quotes are published through the
+ * {@link MarketDataIngestionUseCase} at their offset from the start of the replay,
+ * scaled by the configured speed, and stamped with the time they are published.
+ */
+public class ReplayMarketDataFeed implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayMarketDataFeed.class);
+
+    private final MarketDataIngestionUseCase marketDataIngestionUseCase;
+    private final Path file;
+    private final double speed;
+    private final boolean loop;
+    private final Clock clock;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ReplayMarketDataFeed(
+            MarketDataIngestionUseCase marketDataIngestionUseCase,
+            Path file,
+            double speed,
+            boolean loop,
+            Clock clock) {
+        this.marketDataIngestionUseCase = marketDataIngestionUseCase;
+        this.file = file;
+        this.speed = speed;
+        this.loop = loop;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofVirtual().name("market-data-replay").start(this::run);
+        log.info("Replaying market data from {} (speed {}, loop {})", file, speed, loop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Replays the whole file once on the calling thread.
+     * @return the number of quotes published
+     */
+    public int replay() throws IOException, InterruptedException {
+        int published = 0;
+        long startNanos = System.nanoTime();
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    log.warn("Skipping malformed replay line {}: {}", lineNumber, line);
+                    continue;
+                }
+
+                try {
+                    long offsetMillis = Long.parseLong(fields[0].strip());
+                    String ticker = fields[1].strip();
+                    BigDecimal price = new BigDecimal(fields[2].strip());
+
+                    waitUntil(startNanos, offsetMillis);
+                    marketDataIngestionUseCase.onQuote(new StockQuote(ticker, price, clock.instant()));
+                    published++;
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping malformed replay line {}: {}", lineNumber, line);
+                }
+            }
+        }
+        return published;
+    }
+
+    private void run() {
+        try {
+            do {
+                int published = replay();
+                log.debug("Replayed {} quotes from {}", published, file);
+                if (published == 0) {
+                    break; // Nothing to replay, avoid spinning on an empty file
+                }
+            } while (loop && running);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Market data replay from {} failed: {}", file, e.getMessage());
+        } finally {
+            running = false;
+        }
+    }
+
+    private void waitUntil(long startNanos, long offsetMillis) throws InterruptedException {
+        if (speed <= 0) {
+            return;
+        }
+        long dueNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(offsetMillis) / speed);
+        long delayNanos = dueNanos - System.nanoTime();
+        if (delayNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        }
+    }
+}
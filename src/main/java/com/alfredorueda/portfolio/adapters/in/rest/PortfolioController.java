@@ -5,13 +5,16 @@ import com.alfredorueda.portfolio.application.port.in.PortfolioAnalysisUseCase;
 import com.alfredorueda.portfolio.application.port.in.PortfolioManagementUseCase;
 import com.alfredorueda.portfolio.application.port.in.StockTradingUseCase;
 import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionPage;
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
 import com.alfredorueda.portfolio.domain.InvestmentSummaryDto;
 import com.alfredorueda.portfolio.domain.Portfolio;
 import com.alfredorueda.portfolio.domain.SellResult;
-import com.alfredorueda.portfolio.domain.Transaction;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,6 +25,10 @@ import java.util.Optional;
 @RequestMapping("/api/portfolios")
 public class PortfolioController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_TRANSACTION_PAGE_SIZE = 100;
+    private static final int MAX_TRANSACTION_PAGE_SIZE = 500;
+    
     private final PortfolioManagementUseCase portfolioManagementUseCase;
     private final StockTradingUseCase stockTradingUseCase;
     private final PortfolioAnalysisUseCase portfolioAnalysisUseCase;
@@ -37,7 +44,8 @@ public class PortfolioController {
     
     @PostMapping
     public ResponseEntity<Portfolio> createPortfolio(@RequestBody CreatePortfolioRequest request) {
-        Portfolio portfolio = portfolioManagementUseCase.createPortfolio(request.ownerName());
+        CostBasisMethod costBasisMethod = Optional.ofNullable(request.costBasisMethod()).orElse(CostBasisMethod.FIFO);
+        Portfolio portfolio = portfolioManagementUseCase.createPortfolio(request.ownerName(), costBasisMethod);
         return new ResponseEntity<>(portfolio, HttpStatus.CREATED);
     }
     
@@ -47,6 +55,16 @@ public class PortfolioController {
         return ResponseEntity.ok(portfolio);
     }
     
+    @PutMapping("/{id}/cost-basis-method")
+    public ResponseEntity<Void> changeCostBasisMethod(
+            @PathVariable String id, @RequestBody CostBasisMethodRequest request) {
+        if (request.method() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "method is required");
+        }
+        portfolioManagementUseCase.changeCostBasisMethod(id, request.method());
+        return ResponseEntity.ok().build();
+    }
+    
     @PostMapping("/{id}/deposits")
     public ResponseEntity<Void> deposit(@PathVariable String id, @RequestBody DepositRequest request) {
         portfolioManagementUseCase.deposit(id, request.amount());
@@ -67,10 +85,16 @@ public class PortfolioController {
     
     @PostMapping("/{id}/sales")
     public ResponseEntity<SaleResponse> sellStock(@PathVariable String id, @RequestBody SaleRequest request) {
-        SellResult result = stockTradingUseCase.sellStock(id, request.ticker(), request.quantity());
+        List<String> lotIds = Optional.ofNullable(request.lotIds()).orElse(List.of());
+        SellResult result = stockTradingUseCase.sellStock(id, request.ticker(), request.quantity(), lotIds);
         return ResponseEntity.ok(new SaleResponse(result));
     }
     
+    /**
+     * Returns one page of transactions, newest first. When more transactions follow, the
+     * response carries an X-Next-Cursor header whose value is passed back as {@code cursor}
+     * together with the same filters to fetch the next page.
+     */
     @GetMapping("/{id}/transactions")
     public ResponseEntity<TransactionListResponse> getTransactions(
             @PathVariable String id,
@@ -79,7 +103,15 @@ public class PortfolioController {
             @RequestParam(required = false) LocalDate fromDate,
             @RequestParam(required = false) LocalDate toDate,
             @RequestParam(required = false) BigDecimal minAmount,
-            @RequestParam(required = false) BigDecimal maxAmount) {
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_TRANSACTION_PAGE_SIZE) int limit) {
+        
+        if (limit < 1 || limit > MAX_TRANSACTION_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_TRANSACTION_PAGE_SIZE);
+        }
+        TransactionCursor after = cursor != null ? decodeCursor(cursor) : null;
 
         TransactionFilter filter = new TransactionFilter(id)
                 .withTicker(ticker)
@@ -87,9 +119,11 @@ public class PortfolioController {
                 .withDateRange(fromDate, toDate)
                 .withAmountRange(minAmount, maxAmount);
 
-        List<Transaction> transactions = portfolioAnalysisUseCase.getTransactions(filter);
+        TransactionPage page = portfolioAnalysisUseCase.getTransactions(filter, after, limit);
 
-        return ResponseEntity.ok(new TransactionListResponse(transactions));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.next().ifPresent(next -> response.header(NEXT_CURSOR_HEADER, TransactionCursorToken.encode(next)));
+        return response.body(new TransactionListResponse(page.transactions()));
     }
     
     @GetMapping("/{id}/performance")
@@ -102,4 +136,12 @@ public class PortfolioController {
         
         return ResponseEntity.ok(new PerformanceResponse(performance));
     }
-}
+    
+    private static TransactionCursor decodeCursor(String cursor) {
+        try {
+            return TransactionCursorToken.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
\ No newline at end of file
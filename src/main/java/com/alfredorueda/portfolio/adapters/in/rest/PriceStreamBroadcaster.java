@@ -0,0 +1,182 @@
+package com.alfredorueda.portfolio.adapters.in.rest;
+
+import com.alfredorueda.portfolio.adapters.in.rest.dto.PriceUpdateEvent;
+import com.alfredorueda.portfolio.application.port.in.StockPriceUseCase;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans out stock price updates to Server-Sent Events subscribers.
+ *
+ * Once per interval the union of all subscribed tickers is priced with a single batched
+ * call, so each ticker is fetched once no matter how many clients follow it. Updates are
+ * then handed to every subscriber.
+ *
+ * Each subscriber holds at most one pending update per ticker: a newer price replaces a
+ * pending one that has not been sent yet. A slow client therefore receives the latest
+ * prices when it catches up, and the memory it can pin is bounded by the number of
+ * tickers it subscribed to. Sending happens on a virtual thread per subscriber, so a
+ * slow connection never delays the others.
+ */
+@Component
+public class PriceStreamBroadcaster implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceStreamBroadcaster.class);
+
+    private final StockPriceUseCase stockPriceUseCase;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+    private final int maxTickersPerSubscription;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder sentUpdates = new LongAdder();
+    private final LongAdder conflatedUpdates = new LongAdder();
+
+    public PriceStreamBroadcaster(
+            StockPriceUseCase stockPriceUseCase,
+            @Value("${price.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${price.stream.max-subscribers:1000}") int maxSubscribers,
+            @Value("${price.stream.max-tickers:50}") int maxTickersPerSubscription) {
+        this.stockPriceUseCase = stockPriceUseCase;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.maxTickersPerSubscription = maxTickersPerSubscription;
+    }
+
+    public SseEmitter subscribe(Set<String> tickers) {
+        if (tickers.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one ticker is required");
+        }
+        if (tickers.size() > maxTickersPerSubscription) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxTickersPerSubscription + " tickers can be streamed per subscription");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many price stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(tickers));
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        log.debug("New price stream subscriber for {} ({} subscribers)", tickers, subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${price.stream.interval-ms:1000}")
+    public void publishPrices() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Set<String> tickers = new HashSet<>();
+        subscribers.forEach(subscriber -> tickers.addAll(subscriber.tickers));
+
+        BatchPriceResult prices = stockPriceUseCase.getStreamingPrices(tickers);
+        if (!prices.isComplete()) {
+            log.debug("Price stream could not price {}", prices.failures().keySet());
+        }
+
+        Instant now = Instant.now();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(prices, now);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("price.stream.subscribers", subscribers, Set::size)
+                .register(registry);
+        FunctionCounter.builder("price.stream.updates", sentUpdates, LongAdder::sum)
+                .tag("result", "sent")
+                .register(registry);
+        FunctionCounter.builder("price.stream.updates", conflatedUpdates, LongAdder::sum)
+                .tag("result", "conflated")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> tickers;
+        private final Map<String, PriceUpdateEvent> pending = new ConcurrentHashMap<>();
+        private final Map<String, BigDecimal> lastSent = new HashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<String> tickers) {
+            this.emitter = emitter;
+            this.tickers = tickers;
+        }
+
+        private void offer(BatchPriceResult prices, Instant timestamp) {
+            for (String ticker : tickers) {
+                prices.priceOf(ticker).ifPresent(price -> {
+                    if (pending.put(ticker, new PriceUpdateEvent(ticker, price, timestamp)) != null) {
+                        conflatedUpdates.increment();
+                    }
+                });
+            }
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    for (String ticker : tickers) {
+                        PriceUpdateEvent update = pending.remove(ticker);
+                        if (update == null || update.price().equals(lastSent.get(ticker))) {
+                            continue;
+                        }
+                        emitter.send(SseEmitter.event().name("price").data(update));
+                        lastSent.put(ticker, update.price());
+                        sentUpdates.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; stop streaming to it
+                    subscribers.remove(this);
+                    pending.clear();
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    draining.set(false);
+                }
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.alfredorueda.portfolio.adapters.in.rest;
 
+import com.alfredorueda.portfolio.adapters.in.rest.dto.StockPriceResponse;
 import com.alfredorueda.portfolio.application.port.in.StockPriceUseCase;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for stock price operations
@@ -19,9 +27,16 @@ public class StockPriceController {
     
     private static final Logger log = LoggerFactory.getLogger(StockPriceController.class);
     private final StockPriceUseCase stockPriceUseCase;
+    private final PriceStreamBroadcaster priceStreamBroadcaster;
+    private final int maxTickersPerRequest;
     
-    public StockPriceController(StockPriceUseCase stockPriceUseCase) {
+    public StockPriceController(
+            StockPriceUseCase stockPriceUseCase,
+            PriceStreamBroadcaster priceStreamBroadcaster,
+            @Value("${price.batch.max-tickers:100}") int maxTickersPerRequest) {
         this.stockPriceUseCase = stockPriceUseCase;
+        this.priceStreamBroadcaster = priceStreamBroadcaster;
+        this.maxTickersPerRequest = maxTickersPerRequest;
     }
     
     /**
@@ -31,20 +46,57 @@ public class StockPriceController {
      * @return ResponseEntity containing the stock ticker and its current price
      */
     @GetMapping("/{ticker}/price")
-    public ResponseEntity<Map<String, Object>> getStockPrice(@PathVariable String ticker) {
+    public ResponseEntity<StockPriceResponse> getStockPrice(@PathVariable String ticker) {
         log.debug("Fetching price for ticker: {}", ticker);
         
         try {
             BigDecimal price = stockPriceUseCase.getCurrentPrice(ticker);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("ticker", ticker);
-            response.put("price", price);
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(StockPriceResponse.priced(ticker, price));
         } catch (Exception e) {
             log.error("Error fetching price for ticker {}: {}", ticker, e.getMessage());
             throw e;
         }
     }
+    
+    /**
+     * Retrieves the current prices for several tickers in one batched pass.
+     * Tickers that could not be priced are returned with an error marker instead of a price,
+     * so one failing symbol does not fail the whole request.
+     * 
+     * @param tickers Comma-separated stock ticker symbols
+     * @return ResponseEntity containing one entry per distinct ticker, in request order
+     */
+    @GetMapping("/prices")
+    public ResponseEntity<List<StockPriceResponse>> getStockPrices(@RequestParam List<String> tickers) {
+        Set<String> distinctTickers = new LinkedHashSet<>(tickers);
+        if (distinctTickers.size() > maxTickersPerRequest) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxTickersPerRequest + " tickers can be priced per request");
+        }
+        log.debug("Fetching prices for tickers: {}", distinctTickers);
+        
+        BatchPriceResult result = stockPriceUseCase.getCurrentPrices(distinctTickers);
+        
+        List<StockPriceResponse> response = distinctTickers.stream()
+                .map(ticker -> result.priceOf(ticker)
+                        .map(price -> StockPriceResponse.priced(ticker, price))
+                        .orElseGet(() -> StockPriceResponse.failed(ticker,
+                                result.failures().getOrDefault(ticker, "Price not available"))))
+                .toList();
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Streams price updates for the given tickers as Server-Sent Events.
+     * Each event is named "price" and carries the ticker, its price and the time it was observed.
+     * 
+     * @param tickers Comma-separated stock ticker symbols
+     * @return An SSE emitter that receives an event whenever a subscribed price changes
+     */
+    @GetMapping(path = "/prices/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam List<String> tickers) {
+        log.debug("Opening price stream for tickers: {}", tickers);
+        return priceStreamBroadcaster.subscribe(new LinkedHashSet<>(tickers));
+    }
 }
@@ -0,0 +1,44 @@
+package com.alfredorueda.portfolio.adapters.in.rest;
+
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes a {@link TransactionCursor} as the opaque continuation token handed to clients.
+ *
+ * Clients only pass the token back, so its format can change without breaking them.
+ */
+final class TransactionCursorToken {
+
+    private static final char SEPARATOR = '|';
+
+    private TransactionCursorToken() {
+    }
+
+    static String encode(TransactionCursor cursor) {
+        String raw = cursor.timestamp() + String.valueOf(SEPARATOR) + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode}
+     */
+    static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
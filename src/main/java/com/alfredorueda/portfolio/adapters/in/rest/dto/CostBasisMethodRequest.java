@@ -0,0 +1,6 @@
+package com.alfredorueda.portfolio.adapters.in.rest.dto;
+
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
+
+public record CostBasisMethodRequest(CostBasisMethod method) {
+}
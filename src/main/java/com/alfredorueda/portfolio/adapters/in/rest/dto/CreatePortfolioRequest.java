@@ -1,4 +1,9 @@
 package com.alfredorueda.portfolio.adapters.in.rest.dto;
 
-public record CreatePortfolioRequest(String ownerName) {
-}
\ No newline at end of file
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
+
+/**
+ * @param costBasisMethod how sales pick lots; FIFO when omitted
+ */
+public record CreatePortfolioRequest(String ownerName, CostBasisMethod costBasisMethod) {
+}
@@ -0,0 +1,7 @@
+package com.alfredorueda.portfolio.adapters.in.rest.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PriceUpdateEvent(String ticker, BigDecimal price, Instant timestamp) {
+}
@@ -1,4 +1,9 @@
 package com.alfredorueda.portfolio.adapters.in.rest.dto;
 
-public record SaleRequest(String ticker, int quantity) {
-}
\ No newline at end of file
+import java.util.List;
+
+/**
+ * @param lotIds the lots to sell from, in order; when omitted the portfolio's cost basis method decides
+ */
+public record SaleRequest(String ticker, int quantity, List<String> lotIds) {
+}
@@ -0,0 +1,21 @@
+package com.alfredorueda.portfolio.adapters.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Price of a single ticker. Exactly one of {@code price} and {@code error} is set;
+ * the other is left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StockPriceResponse(String ticker, BigDecimal price, String error) {
+
+    public static StockPriceResponse priced(String ticker, BigDecimal price) {
+        return new StockPriceResponse(ticker, price, null);
+    }
+
+    public static StockPriceResponse failed(String ticker, String error) {
+        return new StockPriceResponse(ticker, null, error);
+    }
+}
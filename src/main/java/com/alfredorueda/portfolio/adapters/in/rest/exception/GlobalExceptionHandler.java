@@ -1,12 +1,16 @@
 package com.alfredorueda.portfolio.adapters.in.rest.exception;
 
 import com.alfredorueda.portfolio.adapters.in.rest.dto.ErrorResponse;
+import com.alfredorueda.portfolio.application.port.in.PortfolioBusyException;
+import com.alfredorueda.portfolio.application.port.out.PriceUnavailableException;
 import com.alfredorueda.portfolio.domain.exception.*;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 
 /**
@@ -76,6 +80,54 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
     
+    // No trustworthy price could be obtained; the request may succeed later
+    @ExceptionHandler(PriceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePriceUnavailableException(
+            PriceUnavailableException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
+    // The portfolio was changed concurrently; the client may retry with fresh state
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                "The portfolio was modified concurrently, please retry",
+                HttpStatus.CONFLICT.value(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
+    // Too many commands are already waiting for the portfolio; nothing was changed
+    @ExceptionHandler(PortfolioBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePortfolioBusyException(
+            PortfolioBusyException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                ex.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+    
+    // Request errors raised by the web adapters themselves
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(
+            ResponseStatusException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                ex.getReason(),
+                ex.getStatusCode().value(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, ex.getStatusCode());
+    }
+    
     // Fallback for all other exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
@@ -0,0 +1,69 @@
+package com.alfredorueda.portfolio.adapters.in.scheduling;
+
+import com.alfredorueda.portfolio.application.port.in.PriceRefreshUseCase;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically refreshes the prices of held stocks so valuations find them in the cache.
+ *
+ * The refresher gets its own share of the provider quota, expressed per minute and split
+ * evenly across runs: each run fetches at most {@code quota-per-minute * interval / 1 min}
+ * tickers. Its requests use the lowest priority and are kept off the last tokens of the
+ * provider's bucket, so they neither delay user requests nor eat into their bursts.
+ */
+@Component
+@ConditionalOnProperty(name = "price.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class HeldPriceRefreshScheduler implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(HeldPriceRefreshScheduler.class);
+
+    private final PriceRefreshUseCase priceRefreshUseCase;
+    private final int budgetPerRun;
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public HeldPriceRefreshScheduler(
+            PriceRefreshUseCase priceRefreshUseCase,
+            @Value("${price.refresh.interval-ms:10000}") long intervalMs,
+            @Value("${price.refresh.quota-per-minute:30}") int quotaPerMinute) {
+        this.priceRefreshUseCase = priceRefreshUseCase;
+        this.budgetPerRun = (int) Math.max(1, quotaPerMinute * intervalMs / 60_000);
+    }
+
+    @Scheduled(initialDelayString = "${price.refresh.interval-ms:10000}",
+            fixedDelayString = "${price.refresh.interval-ms:10000}")
+    public void refreshHeldPrices() {
+        try {
+            BatchPriceResult result = priceRefreshUseCase.refreshHeldPrices(budgetPerRun);
+            refreshed.add(result.prices().size());
+            failed.add(result.failures().size());
+        } catch (RuntimeException e) {
+            log.warn("Refreshing held stock prices failed: {}", e.getMessage());
+        }
+    }
+
+    public int budgetPerRun() {
+        return budgetPerRun;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("price.refresh.tickers", refreshed, LongAdder::sum)
+                .tag("result", "refreshed")
+                .register(registry);
+        FunctionCounter.builder("price.refresh.tickers", failed, LongAdder::sum)
+                .tag("result", "failed")
+                .register(registry);
+    }
+}
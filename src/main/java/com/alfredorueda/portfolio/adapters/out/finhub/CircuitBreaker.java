@@ -0,0 +1,126 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BiConsumer;
+
+/**
+ * Circuit breaker guarding calls to a remote provider.
+ *
+ * - CLOSED: calls are allowed; consecutive failures are counted and once they reach
+ *   the threshold the breaker opens.
+ * - OPEN: calls are rejected immediately until the open duration has elapsed.
+ * - HALF_OPEN: a single probe call is allowed; its success closes the breaker,
+ *   its failure opens it again.
+ *
+ * Every state change is reported to the transition listener.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final BiConsumer<State, State> transitionListener;
+
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(
+            int failureThreshold,
+            Duration openDuration,
+            Clock clock,
+            BiConsumer<State, State> transitionListener) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.transitionListener = transitionListener;
+    }
+
+    /**
+     * Returns whether a call may be made now. In HALF_OPEN only one caller is
+     * granted permission until the probe reports its outcome.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            default:
+                throw new IllegalStateException("Unknown circuit breaker state: " + state);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Gives back a permission that was granted but not used for a call,
+     * without counting it as a success or a failure.
+     */
+    public synchronized void releasePermission() {
+        probeInFlight = false;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    private void open() {
+        openedAt = clock.instant();
+        consecutiveFailures = 0;
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        transitionListener.accept(previous, next);
+    }
+
+    /**
+     * Thrown when a call is rejected because the breaker is open.
+     */
+    public static class CallNotPermittedException extends RuntimeException {
+        public CallNotPermittedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,136 +1,468 @@
 package com.alfredorueda.portfolio.adapters.out.finhub;
 
-import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.adapters.out.price.LastKnownPriceStore;
+import com.alfredorueda.portfolio.adapters.out.price.QuoteProvider;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
-import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDate;
-import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Client for the FinHub API that fetches stock price data
+ * Client for the FinHub API that fetches stock price data.
+ * Application services do not use it directly; it is wrapped by the decorators
+ * assembled in {@link com.alfredorueda.portfolio.config.StockPriceConfiguration}, which
+ * may create a second instance for a secondary FinHub-compatible provider. Metrics of
+ * each instance are tagged with its provider name.
+ * 
+ * Quotes are requested with the JDK {@link HttpClient}: connections are kept alive and
+ * reused (over HTTP/2 when the provider supports it), every request has a connect and a
+ * response deadline, and at most {@code max-connections} requests are on the wire at once.
+ * 
+ * Calls are retried asynchronously and guarded by a {@link CircuitBreaker}. A quote that
+ * cannot be fetched fails its future; every fetched price is recorded as the last known
+ * price of its ticker, which the hedging adapter falls back to.
+ *
+ * Outbound calls, retries included, are kept within the FinHub quota by a
+ * {@link PriorityRateLimiter}: when the quota is exhausted, trade requests are served
+ * before valuations, and valuations before streaming refreshes. Background refreshes
+ * never take the last tokens of the bucket.
+ * In test mode the client is not used; see
+ * {@link com.alfredorueda.portfolio.adapters.out.simulation.SimulatedMarketPriceAdapter}.
  */
-@Primary
-@Component
-public class FinHubClient implements StockPricePort {
+public class FinHubClient implements QuoteProvider, MeterBinder {
     
     private static final Logger log = LoggerFactory.getLogger(FinHubClient.class);
-    private static final String API_URL = "https://finnhub.io/api/v1/quote?symbol=%s&token=%s";
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final String QUOTE_PATH = "/api/v1/quote";
     
-    private final RestTemplate restTemplate;
+    private final String name;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+    private final int maxConnections;
+    private final int maxRetryAttempts;
+    private final long retryBackoffMs;
+    private final Semaphore connectionPermits;
+    private final String baseUrl;
     private final String apiKey;
-    private final boolean testMode;
-    private final Map<String, BigDecimal> mockPrices = new ConcurrentHashMap<>();
-    private final Random random = new Random();
+    private final SingleFlight<String, BigDecimal> inFlightQuotes = new SingleFlight<>(this::onFlightCompleted);
+    private final LastKnownPriceStore lastKnownPrices;
+    private final CircuitBreaker circuitBreaker;
+    private final PriorityRateLimiter rateLimiter;
+    private final Clock clock = Clock.systemUTC();
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("finhub-retry").daemon().factory());
+    private volatile DistributionSummary callersPerFlight;
+    private volatile MeterRegistry meterRegistry;
     
     public FinHubClient(
-            RestTemplate restTemplate,
-            @Value("${finhub.api.key}") String apiKey,
-            @Value("${finhub.api.test-mode:false}") boolean testMode) {
-        this.restTemplate = restTemplate;
-        this.apiKey = apiKey;
-        this.testMode = testMode;
+            String name,
+            ObjectMapper objectMapper,
+            FinHubProperties properties,
+            LastKnownPriceStore lastKnownPrices) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.requestTimeout = Duration.ofMillis(properties.requestTimeoutMs());
+        this.maxConnections = properties.maxConnections();
+        this.maxRetryAttempts = properties.maxRetryAttempts();
+        this.retryBackoffMs = properties.retryBackoffMs();
+        this.connectionPermits = new Semaphore(maxConnections, true);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(properties.connectTimeoutMs()))
+                .executor(requestExecutor)
+                .build();
+        String baseUrl = properties.baseUrl();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.apiKey = properties.key();
+        this.lastKnownPrices = lastKnownPrices;
+        this.circuitBreaker = new CircuitBreaker(
+                properties.circuitFailureThreshold(),
+                Duration.ofMillis(properties.circuitOpenDurationMs()),
+                clock,
+                this::onCircuitTransition);
+        this.rateLimiter = new PriorityRateLimiter(
+                properties.rateLimitPerMinute(),
+                properties.rateLimitBurst(),
+                properties.rateLimitBackgroundReserve(),
+                Duration.ofMillis(properties.rateLimitMaxWaitMs()),
+                retryScheduler,
+                this::onQuotaWait);
         
-        // Initialize mock prices for common tickers
-        mockPrices.put("AAPL", new BigDecimal("150.00"));
-        mockPrices.put("MSFT", new BigDecimal("300.00"));
-        mockPrices.put("GOOGL", new BigDecimal("2800.00"));
-        mockPrices.put("AMZN", new BigDecimal("3300.00"));
-        mockPrices.put("META", new BigDecimal("330.00"));
-        mockPrices.put("TSLA", new BigDecimal("900.00"));
-        mockPrices.put("NFLX", new BigDecimal("550.00"));
-        mockPrices.put("NVDA", new BigDecimal("220.00"));
-        
-        log.info("FinHub client initialized with test mode {}", testMode ? "enabled" : "disabled");
+        log.info("FinHub client {} initialized against {}", name, this.baseUrl);
     }
     
+    /**
+     * Fetches a quote. The returned future fails when the quote cannot be fetched.
+     * Concurrent requests for the same symbol share one outbound call, made at the most
+     * urgent priority among its callers: a trade joining a queued streaming refresh moves
+     * it up instead of waiting behind it.
+     */
+    @Override
+    public CompletableFuture<BigDecimal> quote(String symbol, PriceRequestPriority priority) {
+        return inFlightQuotes.execute(symbol, new QuoteRequest(priority),
+                request -> fetchStockPriceWithRetry(symbol, request),
+                request -> request.raiseTo(priority));
+    }
+
+    
     @Override
-    public BigDecimal fetchStockPrice(String symbol) {
-        if (testMode) {
-            return getMockPrice(symbol);
+    public void bindTo(MeterRegistry registry) {
+        callersPerFlight = DistributionSummary.builder("finhub.quote.callers-per-request")
+                .description("Number of callers served by each outbound FinHub quote request")
+                .tag("provider", name)
+                .register(registry);
+        Gauge.builder("finhub.quote.in-flight", inFlightQuotes, SingleFlight::inFlight)
+                .description("Symbols with an outbound FinHub quote request in flight")
+                .tag("provider", name)
+                .register(registry);
+        for (PriceRequestPriority priority : PriceRequestPriority.values()) {
+            Gauge.builder("finhub.ratelimit.queue.depth", rateLimiter, limiter -> limiter.queueDepth(priority))
+                    .description("Requests waiting for FinHub quota")
+                    .tag("provider", name)
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry);
+        }
+        Gauge.builder("finhub.http.connections.active", connectionPermits,
+                        permits -> maxConnections - permits.availablePermits())
+                .description("FinHub requests currently on the wire")
+                .tag("provider", name)
+                .register(registry);
+        Gauge.builder("finhub.http.connections.max", () -> maxConnections)
+                .description("Maximum number of concurrent FinHub requests")
+                .tag("provider", name)
+                .register(registry);
+        Gauge.builder("finhub.http.connections.pending", connectionPermits, Semaphore::getQueueLength)
+                .description("FinHub requests waiting for a free connection slot")
+                .tag("provider", name)
+                .register(registry);
+        Gauge.builder("finhub.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("FinHub circuit breaker state (0 = closed, 1 = open, 2 = half-open)")
+                .tag("provider", name)
+                .register(registry);
+        meterRegistry = registry;
+    }
+    
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+    
+    private void onFlightCompleted(String symbol, int callers) {
+        if (callers > 1) {
+            log.debug("FinHub quote request for {} served {} callers", symbol, callers);
+        }
+        DistributionSummary summary = callersPerFlight;
+        if (summary != null) {
+            summary.record(callers);
+        }
+    }
+    
+    /**
+     * Fetches a quote asynchronously. The request as a whole must be permitted by the
+     * circuit breaker, which fails the returned future immediately while it is open, and
+     * reports a single outcome to it once the last attempt has ended: provider failures,
+     * i.e. transport errors and 5xx answers, count against the provider; anything else
+     * merely gives the permission back.
+     */
+    private CompletableFuture<BigDecimal> fetchStockPriceWithRetry(String symbol, QuoteRequest request) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return CompletableFuture.failedFuture(new CircuitBreaker.CallNotPermittedException(
+                    "FinHub circuit breaker is " + circuitBreaker.state()));
         }
         
+        return attempt(symbol, request, 1)
+                .whenComplete((price, error) -> {
+                    if (error == null) {
+                        circuitBreaker.onSuccess();
+                    } else if (isProviderFailure(lastAttemptError(error))) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.releasePermission();
+                    }
+                });
+    }
+    
+    /**
+     * Runs one attempt: waits, without holding a thread, for a rate limiter token at the
+     * request's current priority and sends the request. Failed attempts that may succeed on a retry
+     * are rescheduled on the retry scheduler after an exponential backoff, so no thread
+     * sleeps between attempts.
+     */
+    private CompletableFuture<BigDecimal> attempt(String symbol, QuoteRequest request, int attempt) {
+        CompletableFuture<BigDecimal> outcome;
         try {
-            return fetchStockPriceWithRetry(symbol);
-        } catch (Exception e) {
-            log.warn("Failed to retrieve stock price for {}, falling back to mock price. Error: {}", 
-                    symbol, e.getMessage());
-            return getMockPrice(symbol);
+            outcome = request.acquireToken()
+                    .thenCompose(granted -> requestQuote(symbol, attempt));
+        } catch (RuntimeException e) {
+            outcome = CompletableFuture.failedFuture(e);
         }
+        return outcome.exceptionallyCompose(error -> retryLater(symbol, request, attempt, error));
     }
     
-    private BigDecimal fetchStockPriceWithRetry(String symbol) {
-        int attempts = 0;
-        Exception lastException = null;
-
-        while (attempts < MAX_RETRY_ATTEMPTS) {
-            try {
-                String url = String.format(API_URL, symbol, apiKey);
-                log.debug("Fetching stock price for {} (attempt {})", symbol, attempts + 1);
-                
-                FinHubQuoteResponse response = restTemplate.getForObject(url, FinHubQuoteResponse.class);
-                
-                if (response == null || response.getCurrentPrice() == null) {
-                    throw new RuntimeException("Received null response from FinHub API");
-                }
-                
-                BigDecimal price = response.getCurrentPrice();
-                log.info("Successfully fetched price for {}: {}", symbol, price);
-                return price;
-                
-            } catch (Exception e) {
-                lastException = e;
-                attempts++;
-                
-                if (attempts < MAX_RETRY_ATTEMPTS) {
-                    long backoffMillis = calculateBackoffMillis(attempts);
-                    log.warn("Error fetching price for {} (attempt {}). Retrying in {} ms. Error: {}", 
-                            symbol, attempts, backoffMillis, e.getMessage());
+    private CompletableFuture<BigDecimal> retryLater(String symbol, QuoteRequest request, int attempt, Throwable error) {
+        Throwable cause = unwrap(error);
+        if (!isRetryable(cause)) {
+            return CompletableFuture.failedFuture(cause);
+        }
+        if (attempt >= maxRetryAttempts) {
+            return CompletableFuture.failedFuture(new RetriesExhaustedException("Failed to retrieve stock price for symbol: " + 
+                    symbol + " after " + maxRetryAttempts + " attempts", cause));
+        }
+        
+        long backoffMillis = calculateBackoffMillis(attempt);
+        log.warn("Error fetching price for {} (attempt {}). Retrying in {} ms. Error: {}", 
+                symbol, attempt, backoffMillis, cause.getMessage());
+        
+        CompletableFuture<BigDecimal> retry = new CompletableFuture<>();
+        retryScheduler.schedule(() -> attempt(symbol, request, attempt + 1)
+                .whenComplete((price, retryError) -> {
+                    if (retryError != null) {
+                        retry.completeExceptionally(retryError);
+                    } else {
+                        retry.complete(price);
+                    }
+                }), backoffMillis, TimeUnit.MILLISECONDS);
+        return retry;
+    }
+    
+    /**
+     * Transport errors and 5xx answers may be transient, and a 429 clears once the provider's
+     * window rolls over. Other answers, and quotes that cannot be parsed, would fail again.
+     */
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof StatusException status) {
+            return status.isServerError() || status.statusCode() == 429;
+        }
+        return cause instanceof IOException;
+    }
+    
+    private static boolean isProviderFailure(Throwable cause) {
+        if (cause instanceof StatusException status) {
+            return status.isServerError();
+        }
+        return cause instanceof IOException;
+    }
+    
+    private static Throwable lastAttemptError(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause instanceof RetriesExhaustedException && cause.getCause() != null ? cause.getCause() : cause;
+    }
+    
+    /**
+     * Sends one quote request. The caller first waits for a connection slot on a virtual
+     * thread; the exchange itself is asynchronous and releases the slot when it completes.
+     * Every failure, including one building the request, is reported through the returned future.
+     */
+    private CompletableFuture<BigDecimal> requestQuote(String symbol, int attempt) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(quoteUri(symbol))
+                    .timeout(requestTimeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.debug("Fetching stock price for {} (attempt {})", symbol, attempt);
+        
+        return CompletableFuture.runAsync(connectionPermits::acquireUninterruptibly, requestExecutor)
+                .thenCompose(permit -> {
+                    long startedAt = System.nanoTime();
                     try {
-                        TimeUnit.MILLISECONDS.sleep(backoffMillis);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Thread interrupted during backoff", ie);
+                        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                                .whenComplete((response, error) -> {
+                                    connectionPermits.release();
+                                    recordExchange(startedAt, response, error);
+                                });
+                    } catch (RuntimeException e) {
+                        connectionPermits.release();
+                        throw e;
                     }
-                }
-            }
+                })
+                .thenApply(response -> parseQuote(symbol, response));
+    }
+    
+    private URI quoteUri(String symbol) {
+        // Symbols such as "BRK B" or "^GSPC" are not valid in a URI as they are
+        String query = "?symbol=" + URLEncoder.encode(symbol, StandardCharsets.UTF_8);
+        if (apiKey != null) {
+            query += "&token=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
+        }
+        return URI.create(baseUrl + QUOTE_PATH + query);
+    }
+    
+    private BigDecimal parseQuote(String symbol, HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new StatusException(response.statusCode());
+        }
+        
+        FinHubQuoteResponse quote;
+        try {
+            quote = objectMapper.readValue(response.body(), FinHubQuoteResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse FinHub quote for " + symbol, e);
+        }
+        if (quote == null || quote.getCurrentPrice() == null) {
+            throw new RuntimeException("Received null response from FinHub API");
         }
         
-        throw new RuntimeException("Failed to retrieve stock price for symbol: " + symbol + 
-                " after " + MAX_RETRY_ATTEMPTS + " attempts", lastException);
+        BigDecimal price = quote.getCurrentPrice();
+        log.info("Successfully fetched price for {}: {}", symbol, price);
+        lastKnownPrices.record(new StockQuote(symbol, price, clock.instant()));
+        return price;
+    }
+    
+    /**
+     * Records how long an exchange took until the response headers arrived, tagged by outcome.
+     * The JDK client does not report connection setup separately, so slow or failed connects
+     * show up as the connect-timeout and connect-error outcomes.
+     */
+    private void recordExchange(long startedAt, HttpResponse<byte[]> response, Throwable error) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Timer.builder("finhub.http.requests")
+                .tag("provider", name)
+                .tag("outcome", outcome(response, error))
+                .register(registry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+    
+    private static String outcome(HttpResponse<byte[]> response, Throwable error) {
+        if (error == null) {
+            int status = response.statusCode();
+            return status < 400 ? "success" : status < 500 ? "client-error" : "server-error";
+        }
+        Throwable cause = unwrap(error);
+        if (cause instanceof HttpConnectTimeoutException) {
+            return "connect-timeout";
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return "timeout";
+        }
+        if (cause instanceof ConnectException) {
+            return "connect-error";
+        }
+        return "io-error";
+    }
+    
+    private void onQuotaWait(PriceRequestPriority priority, Duration waited) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.timer("finhub.ratelimit.wait", "provider", name, "priority", priority.name().toLowerCase()).record(waited);
+        }
+    }
+    
+    private void onCircuitTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        log.warn("FinHub circuit breaker of {} transition {} -> {}", name, from, to);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.counter("finhub.circuit.transitions", "provider", name, "from", from.name(), "to", to.name()).increment();
+        }
     }
     
     private long calculateBackoffMillis(int attempt) {
         // Exponential backoff with jitter
-        long backoff = INITIAL_BACKOFF_MS * (long) Math.pow(2, attempt - 1);
-        return backoff + ThreadLocalRandom.current().nextLong(INITIAL_BACKOFF_MS);
+        long backoff = retryBackoffMs * (long) Math.pow(2, attempt - 1);
+        return backoff + (retryBackoffMs > 0 ? ThreadLocalRandom.current().nextLong(retryBackoffMs) : 0);
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
     
-    private BigDecimal getMockPrice(String symbol) {
-        return mockPrices.computeIfAbsent(symbol, this::generateMockPrice);
+    /**
+     * The urgency of an outbound quote request, shared by all callers of its flight. The
+     * token it is waiting for, if any, is moved up when a more urgent caller joins.
+     */
+    private final class QuoteRequest {
+        private PriceRequestPriority priority;
+        private CompletableFuture<Void> pendingToken;
+        
+        private QuoteRequest(PriceRequestPriority priority) {
+            this.priority = priority;
+        }
+        
+        private synchronized CompletableFuture<Void> acquireToken() {
+            pendingToken = rateLimiter.acquire(priority);
+            return pendingToken;
+        }
+        
+        private synchronized void raiseTo(PriceRequestPriority urgency) {
+            if (urgency.compareTo(priority) >= 0) {
+                return;
+            }
+            priority = urgency;
+            if (pendingToken != null && !pendingToken.isDone()) {
+                rateLimiter.raisePriority(pendingToken, urgency);
+            }
+        }
     }
     
-    private BigDecimal generateMockPrice(String symbol) {
-        // Use the symbol hashcode to generate a somewhat stable but random-looking price
-        int hash = Math.abs(symbol.hashCode());
-        BigDecimal basePrice = new BigDecimal(50 + (hash % 450));
+    /**
+     * Thrown when FinHub answers a quote request with a status other than 200.
+     */
+    static class StatusException extends RuntimeException {
+        private final int statusCode;
+        
+        StatusException(int statusCode) {
+            super("FinHub API answered with status " + statusCode);
+            this.statusCode = statusCode;
+        }
         
-        // Add some small randomness for variability
-        BigDecimal randomFactor = new BigDecimal(0.9 + (random.nextDouble() * 0.2))
-                .setScale(2, RoundingMode.HALF_UP);
+        int statusCode() {
+            return statusCode;
+        }
         
-        return basePrice.multiply(randomFactor).setScale(2, RoundingMode.HALF_UP);
+        boolean isServerError() {
+            return statusCode >= 500;
+        }
+    }
+    
+    /**
+     * Thrown when every attempt of a request failed; the cause is the last attempt's error.
+     */
+    static class RetriesExhaustedException extends RuntimeException {
+        RetriesExhaustedException(String message, Throwable cause) {
+            super(message, cause);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the FinHub clients.
+ *
+ * @param baseUrl base URL of the FinHub-compatible API
+ * @param key API token
+ * @param circuitFailureThreshold consecutive failed calls before the circuit breaker opens
+ * @param circuitOpenDurationMs how long the circuit breaker stays open
+ * @param rateLimitPerMinute provider quota
+ * @param rateLimitBurst token bucket size
+ * @param rateLimitMaxWaitMs how long a request may wait for quota
+ * @param rateLimitBackgroundReserve tokens of the bucket that background refreshes may not use
+ * @param connectTimeoutMs connect deadline
+ * @param requestTimeoutMs response deadline of a single request
+ * @param maxConnections maximum concurrent requests on the wire
+ * @param maxRetryAttempts attempts per quote, the first one included
+ * @param retryBackoffMs backoff before the first retry; it doubles for every further retry
+ * @param secondary optional second FinHub-compatible provider used for hedged requests;
+ *                  it shares every setting above except its base URL and key
+ */
+@ConfigurationProperties(prefix = "finhub.api")
+public record FinHubProperties(
+        @DefaultValue("https://finnhub.io") String baseUrl,
+        String key,
+        @DefaultValue("5") int circuitFailureThreshold,
+        @DefaultValue("30000") long circuitOpenDurationMs,
+        @DefaultValue("60") int rateLimitPerMinute,
+        @DefaultValue("10") int rateLimitBurst,
+        @DefaultValue("10000") long rateLimitMaxWaitMs,
+        @DefaultValue("5") int rateLimitBackgroundReserve,
+        @DefaultValue("2000") long connectTimeoutMs,
+        @DefaultValue("5000") long requestTimeoutMs,
+        @DefaultValue("16") int maxConnections,
+        @DefaultValue("3") int maxRetryAttempts,
+        @DefaultValue("500") long retryBackoffMs,
+        Secondary secondary) {
+
+    /**
+     * @param baseUrl base URL of the secondary provider
+     * @param key API token of the secondary provider, defaults to the primary key
+     */
+    public record Secondary(String baseUrl, String key) {
+    }
+
+    /**
+     * Settings for a client of the secondary provider.
+     */
+    public FinHubProperties forSecondary() {
+        if (secondary == null || secondary.baseUrl() == null) {
+            throw new IllegalStateException("finhub.api.secondary.base-url is not configured");
+        }
+        return new FinHubProperties(
+                secondary.baseUrl(),
+                secondary.key() != null ? secondary.key() : key,
+                circuitFailureThreshold,
+                circuitOpenDurationMs,
+                rateLimitPerMinute,
+                rateLimitBurst,
+                rateLimitMaxWaitMs,
+                rateLimitBackgroundReserve,
+                connectTimeoutMs,
+                requestTimeoutMs,
+                maxConnections,
+                maxRetryAttempts,
+                retryBackoffMs,
+                null);
+    }
+}
@@ -0,0 +1,233 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Token bucket that keeps calls within a provider's quota, with a priority queue for
+ * callers that have to wait.
+ *
+ * The bucket holds up to {@code burst} tokens and is refilled at {@code permitsPerMinute}.
+ * A caller takes a token immediately when one is available and nobody is queued; otherwise
+ * it is queued and granted a token as soon as one is refilled, higher priorities first and
+ * callers of the same priority in arrival order. Callers that wait longer than the maximum
+ * wait are failed with {@link RateLimitExceededException}.
+ *
+ * Background callers are only granted a token while more than {@code backgroundReserve}
+ * tokens are left, so background work can never drain the bucket that user requests
+ * burst from.
+ *
+ * A waiting caller can be moved up to a more urgent priority while it waits.
+ *
+ * Waiting never blocks a thread: {@link #acquire} returns a future that the scheduler
+ * completes when the token is granted.
+ */
+public class PriorityRateLimiter {
+
+    private static final Comparator<Waiter> SERVICE_ORDER = Comparator
+            .comparing((Waiter waiter) -> waiter.priority)
+            .thenComparingLong(waiter -> waiter.sequence);
+
+    private final int burst;
+    private final int backgroundReserve;
+    private final long nanosPerToken;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService scheduler;
+    private final BiConsumer<PriceRequestPriority, Duration> waitListener;
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(SERVICE_ORDER);
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long sequence;
+    private ScheduledFuture<?> scheduledDispatch;
+    private long scheduledDispatchAtNanos;
+
+    public PriorityRateLimiter(
+            int permitsPerMinute,
+            int burst,
+            Duration maxWait,
+            ScheduledExecutorService scheduler,
+            BiConsumer<PriceRequestPriority, Duration> waitListener) {
+        this(permitsPerMinute, burst, 0, maxWait, scheduler, waitListener);
+    }
+
+    public PriorityRateLimiter(
+            int permitsPerMinute,
+            int burst,
+            int backgroundReserve,
+            Duration maxWait,
+            ScheduledExecutorService scheduler,
+            BiConsumer<PriceRequestPriority, Duration> waitListener) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit and burst must be positive");
+        }
+        if (backgroundReserve < 0 || backgroundReserve >= burst) {
+            throw new IllegalArgumentException("Background reserve must be at least 0 and below the burst");
+        }
+        this.burst = burst;
+        this.backgroundReserve = backgroundReserve;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.scheduler = scheduler;
+        this.waitListener = waitListener;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Requests a token for a call with the given priority.
+     * The returned future completes once the call may be made.
+     */
+    public CompletableFuture<Void> acquire(PriceRequestPriority priority) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            refill(now);
+            // Nobody queued would be served before this caller
+            boolean first = waiters.isEmpty() || waiters.peek().priority.compareTo(priority) > 0;
+            if (first && tokens >= tokensRequired(priority)) {
+                tokens -= 1;
+                waitListener.accept(priority, Duration.ZERO);
+                return CompletableFuture.completedFuture(null);
+            }
+            Waiter waiter = new Waiter(priority, sequence++, now);
+            waiters.add(waiter);
+            scheduleDispatch(now);
+            return waiter.granted;
+        }
+    }
+
+    /**
+     * Moves a caller still waiting for the given token up to a more urgent priority. It keeps
+     * its arrival order and its wait so far. Returns whether the caller was still waiting.
+     */
+    public synchronized boolean raisePriority(CompletableFuture<Void> granted, PriceRequestPriority priority) {
+        for (Waiter waiter : waiters) {
+            if (waiter.granted == granted) {
+                if (priority.compareTo(waiter.priority) < 0) {
+                    waiters.remove(waiter);
+                    waiter.priority = priority;
+                    waiters.add(waiter);
+                    // It may now need fewer tokens than the head it replaced
+                    long now = System.nanoTime();
+                    refill(now);
+                    scheduleDispatch(now);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of callers of the given priority currently waiting for a token.
+     */
+    public synchronized int queueDepth(PriceRequestPriority priority) {
+        int depth = 0;
+        for (Waiter waiter : waiters) {
+            if (waiter.priority == priority) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    private void dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> expired = new ArrayList<>();
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            scheduledDispatch = null;
+            refill(now);
+
+            for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+                Waiter waiter = it.next();
+                if (now - waiter.enqueuedAtNanos >= maxWaitNanos) {
+                    it.remove();
+                    expired.add(waiter);
+                }
+            }
+            while (!waiters.isEmpty() && tokens >= tokensRequired(waiters.peek().priority)) {
+                tokens -= 1;
+                granted.add(waiters.poll());
+            }
+            if (!waiters.isEmpty()) {
+                scheduleDispatch(now);
+            }
+        }
+
+        // Complete outside the lock: dependent stages run on this thread
+        for (Waiter waiter : granted) {
+            waitListener.accept(waiter.priority, Duration.ofNanos(now - waiter.enqueuedAtNanos));
+            waiter.granted.complete(null);
+        }
+        for (Waiter waiter : expired) {
+            waiter.granted.completeExceptionally(new RateLimitExceededException(
+                    "No FinHub quota available within " + Duration.ofNanos(maxWaitNanos).toMillis() + " ms"));
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (double) (now - lastRefillNanos) / nanosPerToken);
+        lastRefillNanos = now;
+    }
+
+    private double tokensRequired(PriceRequestPriority priority) {
+        return priority == PriceRequestPriority.BACKGROUND ? 1 + backgroundReserve : 1;
+    }
+
+    /**
+     * Schedules a dispatch for when the first waiter can be served, unless one is already
+     * scheduled by then.
+     */
+    private void scheduleDispatch(long now) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        double required = tokensRequired(waiters.peek().priority);
+        long untilTokens = tokens >= required ? 0 : (long) Math.ceil((required - tokens) * nanosPerToken);
+        // Also wake up in time to fail waiters that have waited too long
+        long delayNanos = Math.min(untilTokens, maxWaitNanos);
+        if (scheduledDispatch != null) {
+            if (now + delayNanos - scheduledDispatchAtNanos >= 0) {
+                return;
+            }
+            scheduledDispatch.cancel(false);
+        }
+        scheduledDispatch = scheduler.schedule(this::dispatch, delayNanos, TimeUnit.NANOSECONDS);
+        scheduledDispatchAtNanos = now + delayNanos;
+    }
+
+    private static final class Waiter {
+        private PriceRequestPriority priority;
+        private final long sequence;
+        private final long enqueuedAtNanos;
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+
+        private Waiter(PriceRequestPriority priority, long sequence, long enqueuedAtNanos) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+
+    /**
+     * Thrown when a caller could not be granted a token within the maximum wait.
+     */
+    public static class RateLimitExceededException extends RuntimeException {
+        public RateLimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
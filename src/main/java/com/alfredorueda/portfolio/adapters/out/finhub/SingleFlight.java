@@ -0,0 +1,120 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single outstanding call.
+ *
+ * The first caller for a key (the leader) starts the call; every caller that arrives
+ * while it is still running joins the same flight and receives the same result or error.
+ * Once the call completes the flight is closed and the next caller starts a new one,
+ * so results are shared but never cached.
+ *
+ * A flight may carry the state its call was started with, e.g. the urgency of the request,
+ * so that callers joining it can update that state.
+ *
+ * When a flight completes the listener is told how many callers it served.
+ *
+ * @param <K> the key calls are deduplicated by
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final ObjIntConsumer<K> flightListener;
+
+    public SingleFlight(ObjIntConsumer<K> flightListener) {
+        this.flightListener = flightListener;
+    }
+
+    /**
+     * Runs {@code call} for {@code key} unless a call for that key is already in flight,
+     * in which case the caller joins the outstanding call.
+     * The supplier is invoked on the leader's thread and may complete synchronously.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        return execute(key, null, state -> call.get(), state -> { });
+    }
+
+    /**
+     * Runs {@code call} with {@code state} for {@code key} unless a call for that key is
+     * already in flight, in which case the caller joins the outstanding call and
+     * {@code onJoin} is applied to the state that call was started with. All callers of a
+     * key must pass state of the same type.
+     */
+    public <S> CompletableFuture<V> execute(K key, S state, Function<S, CompletableFuture<V>> call, Consumer<S> onJoin) {
+        while (true) {
+            Flight<V> flight = new Flight<>(state);
+            Flight<V> existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                lead(key, flight, () -> call.apply(state));
+                return flight.result;
+            }
+            if (existing.join()) {
+                onJoin.accept(existing.state());
+                return existing.result;
+            }
+            // The existing flight closed between lookup and join; it is being removed, so retry
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Number of keys with a call currently in flight.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private void lead(K key, Flight<V> flight, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> source;
+        try {
+            source = call.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+
+        source.whenComplete((value, error) -> {
+            flights.remove(key, flight);
+            int callers = flight.close();
+            flightListener.accept(key, callers);
+            if (error != null) {
+                flight.result.completeExceptionally(error);
+            } else {
+                flight.result.complete(value);
+            }
+        });
+    }
+
+    private static final class Flight<V> {
+        private static final int CLOSED = -1;
+
+        private final Object state;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger callers = new AtomicInteger(1);
+
+        private Flight(Object state) {
+            this.state = state;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <S> S state() {
+            return (S) state;
+        }
+
+        private boolean join() {
+            return callers.getAndUpdate(count -> count == CLOSED ? CLOSED : count + 1) != CLOSED;
+        }
+
+        private int close() {
+            return callers.getAndSet(CLOSED);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.alfredorueda.portfolio.adapters.out.finhub.stub;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration of the local FinHub stand-in server.
+ *
+ * @param enabled whether the stub server is started
+ * @param port port the stub listens on, 0 picks a free port
+ * @param latencyMs fixed latency added to every quote response
+ * @param latencyJitterMs random extra latency, between 0 and this value
+ * @param errorRate fraction of requests (0.0 - 1.0) answered with an injected error
+ * @param seed seed for synthetic prices, jitter and error injection, so runs are repeatable
+ * @param replayFile {@code offsetMillis,ticker,price} file whose prices are served in order per ticker
+ * @param recordFile file every served quote is appended to, in the same format as the replay file
+ * @param upstreamUrl when set, quotes are proxied from this FinHub-compatible base URL instead of being synthesized
+ */
+@ConfigurationProperties(prefix = "finhub.stub")
+public record FinHubStubProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("18080") int port,
+        @DefaultValue("0") long latencyMs,
+        @DefaultValue("0") long latencyJitterMs,
+        @DefaultValue("0.0") double errorRate,
+        @DefaultValue("42") long seed,
+        Path replayFile,
+        Path recordFile,
+        String upstreamUrl) {
+}
@@ -0,0 +1,319 @@
+package com.alfredorueda.portfolio.adapters.out.finhub.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the FinHub quote API, used for offline and load testing.
+ *
+ * It serves {@code GET /api/v1/quote?symbol=...} with the same JSON shape as FinHub.
+ * Prices come from one of three sources, in order of precedence:
+ * - a replay file, whose prices are served in order per ticker and then repeated
+ * - an upstream FinHub-compatible server the request is proxied to
+ * - a seeded random walk per ticker
+ *
+ * Every response can be delayed by a fixed latency plus seeded jitter, a seeded share
+ * of requests fails with 429 or 500, and every served quote can be recorded to a file
+ * in the replay format so a captured session can be replayed later.
+ */
+public class FinHubStubServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FinHubStubServer.class);
+    private static final String QUOTE_PATH = "/api/v1/quote";
+
+    private final FinHubStubProperties properties;
+    private final Map<String, List<BigDecimal>> replaySequences;
+    private final Map<String, Integer> replayPositions = new HashMap<>();
+    private final Map<String, SyntheticTicker> syntheticTickers = new ConcurrentHashMap<>();
+    private final SplittableRandom faultRandom;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private HttpClient upstreamClient;
+    private BufferedWriter recorder;
+    private long startedAtNanos;
+
+    public FinHubStubServer(FinHubStubProperties properties) {
+        this.properties = properties;
+        this.faultRandom = new SplittableRandom(properties.seed());
+        this.replaySequences = properties.replayFile() != null ? loadReplay() : Map.of();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            server = HttpServer.create(new InetSocketAddress("localhost", properties.port()), 0);
+            server.createContext(QUOTE_PATH, this::handleQuote);
+            server.setExecutor(executor);
+
+            if (properties.upstreamUrl() != null) {
+                upstreamClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            }
+            if (properties.recordFile() != null) {
+                recorder = Files.newBufferedWriter(properties.recordFile(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+
+            startedAtNanos = System.nanoTime();
+            server.start();
+            log.info("FinHub stub server listening on port {} (latency {}+{} ms, error rate {}, replay {}, record {})",
+                    port(), properties.latencyMs(), properties.latencyJitterMs(), properties.errorRate(),
+                    properties.replayFile(), properties.recordFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start FinHub stub server", e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        try {
+            if (recorder != null) {
+                recorder.close();
+                recorder = null;
+            }
+        } catch (IOException e) {
+            log.warn("Could not close FinHub stub recording: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Starts before the web server so the stub is reachable when traffic arrives.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    /**
+     * The port the stub is bound to, useful when it was started on port 0.
+     */
+    public synchronized int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleQuote(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String symbol = queryParameters(exchange.getRequestURI()).get("symbol");
+            if (symbol == null || symbol.isBlank()) {
+                respond(exchange, 400, "{\"error\":\"symbol is required\"}");
+                return;
+            }
+
+            injectLatency();
+
+            int injectedStatus = injectedErrorStatus();
+            if (injectedStatus != 0) {
+                respond(exchange, injectedStatus, "{\"error\":\"Injected failure\"}");
+                return;
+            }
+
+            BigDecimal price = nextPrice(symbol, exchange.getRequestURI());
+            record(symbol, price);
+            respond(exchange, 200, quoteJson(price));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("FinHub stub failed to serve {}: {}", exchange.getRequestURI(), e.getMessage());
+            respond(exchange, 502, "{\"error\":\"Stub failure\"}");
+        }
+    }
+
+    private BigDecimal nextPrice(String symbol, URI requestUri) throws InterruptedException {
+        List<BigDecimal> sequence = replaySequences.get(symbol);
+        if (sequence != null) {
+            synchronized (replayPositions) {
+                int position = replayPositions.getOrDefault(symbol, 0);
+                replayPositions.put(symbol, position + 1);
+                return sequence.get(position % sequence.size());
+            }
+        }
+        if (upstreamClient != null) {
+            return fetchUpstream(requestUri);
+        }
+        return syntheticTickers
+                .computeIfAbsent(symbol, ticker -> new SyntheticTicker(ticker, properties.seed()))
+                .next();
+    }
+
+    private BigDecimal fetchUpstream(URI requestUri) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(properties.upstreamUrl() + QUOTE_PATH + "?" + requestUri.getRawQuery()))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = upstreamClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Upstream answered " + response.statusCode());
+            }
+            JsonNode currentPrice = objectMapper.readTree(response.body()).get("c");
+            if (currentPrice == null || currentPrice.isNull()) {
+                throw new IllegalStateException("Upstream quote has no current price");
+            }
+            return currentPrice.decimalValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void injectLatency() throws InterruptedException {
+        long delay = properties.latencyMs();
+        if (properties.latencyJitterMs() > 0) {
+            synchronized (faultRandom) {
+                delay += faultRandom.nextLong(properties.latencyJitterMs() + 1);
+            }
+        }
+        if (delay > 0) {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    private int injectedErrorStatus() {
+        if (properties.errorRate() <= 0) {
+            return 0;
+        }
+        synchronized (faultRandom) {
+            if (faultRandom.nextDouble() >= properties.errorRate()) {
+                return 0;
+            }
+            return faultRandom.nextBoolean() ? 429 : 500;
+        }
+    }
+
+    private void record(String symbol, BigDecimal price) {
+        if (recorder == null) {
+            return;
+        }
+        long offsetMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos);
+        synchronized (this) {
+            try {
+                recorder.write(offsetMillis + "," + symbol + "," + price.toPlainString());
+                recorder.newLine();
+                recorder.flush();
+            } catch (IOException e) {
+                log.warn("Could not record quote for {}: {}", symbol, e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, List<BigDecimal>> loadReplay() {
+        Map<String, List<BigDecimal>> sequences = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(properties.replayFile())) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    log.warn("Skipping malformed replay line: {}", line);
+                    continue;
+                }
+                sequences.computeIfAbsent(fields[1].strip(), ticker -> new ArrayList<>())
+                        .add(new BigDecimal(fields[2].strip()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read FinHub replay file " + properties.replayFile(), e);
+        }
+        log.info("Loaded replay quotes for {} tickers from {}", sequences.size(), properties.replayFile());
+        return sequences;
+    }
+
+    private static Map<String, String> queryParameters(URI uri) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(
+                        URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String quoteJson(BigDecimal price) {
+        String c = price.toPlainString();
+        return "{\"c\":" + c + ",\"d\":0,\"dp\":0,\"h\":" + c + ",\"l\":" + c + ",\"o\":" + c
+                + ",\"pc\":" + c + ",\"t\":" + Instant.now().getEpochSecond() + "}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Seeded random walk for one ticker: every request moves the price by up to 1%.
+     */
+    private static final class SyntheticTicker {
+        private final SplittableRandom random;
+        private double price;
+
+        private SyntheticTicker(String ticker, long seed) {
+            this.random = new SplittableRandom(seed ^ ticker.hashCode());
+            this.price = 50 + Math.abs(ticker.hashCode() % 450);
+        }
+
+        private synchronized BigDecimal next() {
+            price = price * (1 + (random.nextDouble() - 0.5) * 0.02);
+            return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
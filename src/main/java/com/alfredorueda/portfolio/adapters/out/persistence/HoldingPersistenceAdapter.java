@@ -0,0 +1,21 @@
+package com.alfredorueda.portfolio.adapters.out.persistence;
+
+import com.alfredorueda.portfolio.application.port.out.HeldTickersPort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class HoldingPersistenceAdapter implements HeldTickersPort {
+
+    private final HoldingRepository holdingRepository;
+
+    public HoldingPersistenceAdapter(HoldingRepository holdingRepository) {
+        this.holdingRepository = holdingRepository;
+    }
+
+    @Override
+    public List<String> findHeldTickersByPopularity() {
+        return holdingRepository.findTickersOrderByHoldingCountDesc();
+    }
+}
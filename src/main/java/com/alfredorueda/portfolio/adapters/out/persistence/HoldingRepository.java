@@ -0,0 +1,20 @@
+package com.alfredorueda.portfolio.adapters.out.persistence;
+
+import com.alfredorueda.portfolio.domain.Holding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HoldingRepository extends JpaRepository<Holding, String> {
+
+    @Query("SELECT h.ticker FROM Holding h GROUP BY h.ticker ORDER BY COUNT(h) DESC, h.ticker")
+    List<String> findTickersOrderByHoldingCountDesc();
+
+    @Query("SELECT h FROM Holding h LEFT JOIN FETCH h.lots WHERE h.portfolio.id = :portfolioId AND h.ticker = :ticker")
+    Optional<Holding> findWithLots(@Param("portfolioId") String portfolioId, @Param("ticker") String ticker);
+}
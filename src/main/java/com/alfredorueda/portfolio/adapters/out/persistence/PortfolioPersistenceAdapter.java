@@ -1,19 +1,29 @@
 package com.alfredorueda.portfolio.adapters.out.persistence;
 
+import com.alfredorueda.portfolio.application.port.out.LoadPortfolioForTradePort;
 import com.alfredorueda.portfolio.application.port.out.LoadPortfolioPort;
 import com.alfredorueda.portfolio.application.port.out.SavePortfolioPort;
+import com.alfredorueda.portfolio.domain.Holding;
 import com.alfredorueda.portfolio.domain.Portfolio;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 
 @Component
-public class PortfolioPersistenceAdapter implements LoadPortfolioPort, SavePortfolioPort {
+public class PortfolioPersistenceAdapter implements LoadPortfolioPort, LoadPortfolioForTradePort, SavePortfolioPort {
     
     private final PortfolioRepository portfolioRepository;
+    private final HoldingRepository holdingRepository;
+    private final EntityManager entityManager;
     
-    public PortfolioPersistenceAdapter(PortfolioRepository portfolioRepository) {
+    public PortfolioPersistenceAdapter(
+            PortfolioRepository portfolioRepository,
+            HoldingRepository holdingRepository,
+            EntityManager entityManager) {
         this.portfolioRepository = portfolioRepository;
+        this.holdingRepository = holdingRepository;
+        this.entityManager = entityManager;
     }
     
     @Override
@@ -21,8 +31,38 @@ public class PortfolioPersistenceAdapter implements LoadPortfolioPort, SavePortf
         return portfolioRepository.findById(id);
     }
     
+    @Override
+    public Optional<Portfolio> findAggregateById(String id) {
+        return portfolioRepository.findAggregateById(id);
+    }
+    
+    @Override
+    public boolean existsById(String id) {
+        return portfolioRepository.existsById(id);
+    }
+    
+    @Override
+    public Optional<Portfolio> findByIdForTrade(String id, String ticker) {
+        return portfolioRepository.findById(id).map(portfolio -> {
+            portfolio.limitTradingTo(ticker, holdingRepository.findWithLots(id, ticker));
+            return portfolio;
+        });
+    }
+    
     @Override
     public Portfolio save(Portfolio portfolio) {
+        // Inserted and deleted one by one: going through the portfolio's holdings would load all of them
+        for (Holding opened : portfolio.takeOpenedHoldings()) {
+            entityManager.persist(opened);
+        }
+        for (Holding closed : portfolio.takeClosedHoldings()) {
+            entityManager.remove(entityManager.contains(closed) ? closed : entityManager.merge(closed));
+        }
+        // A portfolio loaded in this transaction is already managed: its changes, including
+        // new holdings and lots, are flushed on commit. Merging it would only walk and copy it.
+        if (entityManager.contains(portfolio)) {
+            return portfolio;
+        }
         return portfolioRepository.save(portfolio);
     }
 }
@@ -2,20 +2,21 @@ package com.alfredorueda.portfolio.adapters.out.persistence;
 
 import com.alfredorueda.portfolio.application.port.out.TransactionPort;
 import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionPage;
 import com.alfredorueda.portfolio.domain.Transaction;
-import com.alfredorueda.portfolio.domain.TransactionType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
-import java.util.Optional;
 
 @Component
 public class TransactionPersistenceAdapter implements TransactionPort {
     
+    // The id breaks ties between transactions recorded at the same instant, so pages never overlap
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+    
     private final TransactionRepository transactionRepository;
     
     public TransactionPersistenceAdapter(TransactionRepository transactionRepository) {
@@ -29,22 +30,23 @@ public class TransactionPersistenceAdapter implements TransactionPort {
     
     @Override
     public List<Transaction> findByPortfolioId(TransactionFilter filter) {
-        LocalDateTime fromDateTime = filter.getFromDate()
-                .map(date -> LocalDateTime.of(date, LocalTime.MIN))
-                .orElse(null);
-
-        LocalDateTime toDateTime = filter.getToDate()
-                .map(date -> LocalDateTime.of(date, LocalTime.MAX))
-                .orElse(null);
-
-        return transactionRepository.findByPortfolioIdWithFilters(
-                filter.getPortfolioId(),
-                filter.getTicker().orElse(null),
-                filter.getType().map(TransactionType::valueOf).orElse(null),
-                fromDateTime,
-                toDateTime,
-                filter.getMinAmount().orElse(null),
-                filter.getMaxAmount().orElse(null)
-        );
+        return transactionRepository.findAll(TransactionSpecifications.matching(filter), NEWEST_FIRST);
+    }
+    
+    @Override
+    public TransactionPage findPageByPortfolioId(TransactionFilter filter, TransactionCursor after, int limit) {
+        Specification<Transaction> specification = TransactionSpecifications.matching(filter);
+        if (after != null) {
+            specification = specification.and(TransactionSpecifications.after(after));
+        }
+        
+        // One extra row tells whether there is a next page without a count query
+        List<Transaction> transactions = transactionRepository.findBy(specification,
+                query -> query.sortBy(NEWEST_FIRST).limit(limit + 1).all());
+        if (transactions.size() <= limit) {
+            return new TransactionPage(transactions, null);
+        }
+        List<Transaction> page = transactions.subList(0, limit);
+        return new TransactionPage(page, TransactionCursor.after(page.get(limit - 1)));
     }
 }
@@ -0,0 +1,58 @@
+package com.alfredorueda.portfolio.adapters.out.persistence;
+
+import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.domain.Transaction;
+import com.alfredorueda.portfolio.domain.TransactionType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds transaction queries from a {@link TransactionFilter}.
+ *
+ * Only the criteria present in the filter become predicates, so each combination of
+ * filters yields its own simple query the database can plan against the
+ * (portfolio_id, timestamp, id) and (portfolio_id, ticker, timestamp, id) indexes, instead of
+ * one catch-all query with an {@code IS NULL OR} branch per filter.
+ */
+final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    static Specification<Transaction> matching(TransactionFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("portfolioId"), filter.getPortfolioId()));
+            filter.getTicker().ifPresent(ticker ->
+                    predicates.add(cb.equal(root.get("ticker"), ticker)));
+            filter.getType().map(TransactionType::valueOf).ifPresent(type ->
+                    predicates.add(cb.equal(root.get("type"), type)));
+            filter.getFromDate().ifPresent(fromDate ->
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), fromDate.atStartOfDay())));
+            // The end date is inclusive: everything before the start of the following day
+            filter.getToDate().ifPresent(toDate ->
+                    predicates.add(cb.lessThan(root.get("timestamp"), toDate.plusDays(1).atStartOfDay())));
+            filter.getMinAmount().ifPresent(minAmount ->
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("totalAmount"), minAmount)));
+            filter.getMaxAmount().ifPresent(maxAmount ->
+                    predicates.add(cb.lessThanOrEqualTo(root.get("totalAmount"), maxAmount)));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Transactions that come after the cursor in newest-first order: a keyset predicate
+     * on (timestamp, id), so the database seeks to the cursor instead of skipping rows.
+     */
+    static Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("timestamp"), cursor.timestamp()),
+                cb.and(
+                        cb.equal(root.get("timestamp"), cursor.timestamp()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
@@ -0,0 +1,362 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caching decorator for a {@link StockPricePort}.
+ *
+ * Prices are kept in memory per ticker and go through three states:
+ * - fresh (younger than the ticker TTL): served from memory
+ * - stale (within the stale window after the TTL): served from memory while a
+ *   single background refresh fetches a new price (stale-while-revalidate)
+ * - expired or absent: fetched synchronously from the delegate
+ *
+ * The cache is bounded; when it grows beyond its maximum size the least recently
+ * accessed ticker is evicted. Prices can also be refreshed ahead of demand, which
+ * fetches only tickers that are absent or no longer fresh.
+ *
+ * Hit, stale and miss counts are exposed through {@link #stats()} and as Micrometer metrics.
+ */
+public class CachingStockPriceAdapter implements StockPricePort, MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingStockPriceAdapter.class);
+
+    private final StockPricePort delegate;
+    private final PriceCacheProperties properties;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    // Ordered from least to most recently used; every access is guarded by the map itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder aheadRefreshes = new LongAdder();
+
+    public CachingStockPriceAdapter(
+            StockPricePort delegate,
+            PriceCacheProperties properties,
+            Clock clock,
+            Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker) {
+        return fetchStockPrice(ticker, PriceRequestPriority.VALUATION);
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker, PriceRequestPriority priority) {
+        BigDecimal cached = lookup(ticker, clock.instant());
+        if (cached != null) {
+            return cached;
+        }
+
+        misses.increment();
+        StockQuote quote = delegate.fetchStockQuote(ticker, priority);
+        store(ticker, quote.price(), fetchedAt(quote.timestamp(), clock.instant()));
+        return quote.price();
+    }
+
+    /**
+     * Serves fresh and stale tickers from memory and resolves all misses
+     * with a single batched call to the delegate.
+     */
+    @Override
+    public BatchPriceResult fetchStockPrices(Collection<String> tickers) {
+        return fetchStockPrices(tickers, PriceRequestPriority.VALUATION);
+    }
+
+    @Override
+    public BatchPriceResult fetchStockPrices(Collection<String> tickers, PriceRequestPriority priority) {
+        Instant now = clock.instant();
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String ticker : tickers) {
+            if (prices.containsKey(ticker) || missing.contains(ticker)) {
+                continue;
+            }
+            BigDecimal cached = lookup(ticker, now);
+            if (cached != null) {
+                prices.put(ticker, cached);
+            } else {
+                missing.add(ticker);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return new BatchPriceResult(prices, Map.of());
+        }
+
+        misses.add(missing.size());
+        BatchPriceResult fetched = delegate.fetchStockPrices(missing, priority);
+        Instant receivedAt = clock.instant();
+        fetched.prices().forEach((ticker, price) -> {
+            store(ticker, price, fetchedAt(fetched, ticker, receivedAt));
+            prices.put(ticker, price);
+        });
+        return new BatchPriceResult(prices, fetched.failures(), fetched.quotedAt());
+    }
+
+    /**
+     * Fetches, in order, up to {@code limit} of the tickers that are absent or no longer
+     * fresh, skipping those already being refreshed in the background. Refreshes are not
+     * counted as hits or misses, and do not mark the ticker as recently accessed.
+     */
+    @Override
+    public BatchPriceResult refreshStockPrices(List<String> tickers, int limit, PriceRequestPriority priority) {
+        Instant now = clock.instant();
+        Set<String> due = new LinkedHashSet<>();
+        for (String ticker : tickers) {
+            if (due.size() >= limit) {
+                break;
+            }
+            Entry entry = peek(ticker);
+            if (entry == null
+                    || (!entry.refreshing.get()
+                        && Duration.between(entry.fetchedAt, now).compareTo(properties.ttlFor(ticker)) >= 0)) {
+                due.add(ticker);
+            }
+        }
+
+        if (due.isEmpty()) {
+            return new BatchPriceResult(Map.of(), Map.of());
+        }
+
+        BatchPriceResult fetched = delegate.fetchStockPrices(due, priority);
+        Instant receivedAt = clock.instant();
+        fetched.prices().forEach((ticker, price) ->
+                refreshed(ticker, price, fetchedAt(fetched, ticker, receivedAt)));
+        aheadRefreshes.add(fetched.prices().size());
+        return fetched;
+    }
+
+    /**
+     * Seeds the cache with a quote obtained elsewhere, e.g. restored from a snapshot.
+     * The quote keeps its own timestamp, so an old quote is served as stale or not at all,
+     * and it never replaces a newer cached price.
+     */
+    public void prime(StockQuote quote) {
+        synchronized (entries) {
+            Entry existing = entries.get(quote.ticker());
+            if (existing == null) {
+                // Nobody has asked for it yet, so it is the first candidate for eviction
+                entries.putFirst(quote.ticker(), new Entry(quote.price(), quote.timestamp()));
+            } else if (existing.fetchedAt.isBefore(quote.timestamp())) {
+                existing.update(quote.price(), quote.timestamp());
+            }
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the cache counters.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(),
+                evictions.sum(), refreshFailures.sum(), size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("price.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("price.cache.requests", staleHits, LongAdder::sum)
+                .tag("result", "stale")
+                .register(registry);
+        FunctionCounter.builder("price.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("price.cache.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("price.cache.refresh.failures", refreshFailures, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("price.cache.refresh.ahead", aheadRefreshes, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("price.cache.size", this, CachingStockPriceAdapter::size)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the cached price when it is fresh or still within the stale window
+     * (scheduling a refresh in the latter case), or null when the delegate must be called.
+     */
+    private BigDecimal lookup(String ticker, Instant now) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(ticker);
+            if (entry == null) {
+                return null;
+            }
+            entries.putLast(ticker, entry);
+        }
+
+        Duration age = Duration.between(entry.fetchedAt, now);
+        Duration ttl = properties.ttlFor(ticker);
+
+        if (age.compareTo(ttl) < 0) {
+            hits.increment();
+            return entry.price;
+        }
+        if (age.compareTo(ttl.plus(properties.staleWindow())) < 0) {
+            staleHits.increment();
+            refreshInBackground(ticker, entry);
+            return entry.price;
+        }
+        return null;
+    }
+
+    private void refreshInBackground(String ticker, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return; // A refresh for this ticker is already running
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    // Nobody waits for a background refresh, so it yields to every caller
+                    StockQuote quote = delegate.fetchStockQuote(ticker, PriceRequestPriority.STREAMING);
+                    Instant fetchedAt = fetchedAt(quote.timestamp(), clock.instant());
+                    if (entry.fetchedAt.isBefore(fetchedAt)) {
+                        entry.update(quote.price(), fetchedAt);
+                    }
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    log.warn("Background refresh of price for {} failed: {}", ticker, e.getMessage());
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            entry.refreshing.set(false);
+            refreshFailures.increment();
+            log.warn("Could not schedule background refresh of price for {}: {}", ticker, e.getMessage());
+        }
+    }
+
+    /**
+     * When a price the delegate returned was observed. A last known price used as fallback
+     * keeps its own age, so it is not served as fresh; no price is dated later than it arrived.
+     */
+    private static Instant fetchedAt(Instant quotedAt, Instant receivedAt) {
+        return quotedAt.isBefore(receivedAt) ? quotedAt : receivedAt;
+    }
+
+    private static Instant fetchedAt(BatchPriceResult fetched, String ticker, Instant receivedAt) {
+        return fetched.quoteTimeOf(ticker)
+                .map(quotedAt -> fetchedAt(quotedAt, receivedAt))
+                .orElse(receivedAt);
+    }
+
+    private void store(String ticker, BigDecimal price, Instant fetchedAt) {
+        synchronized (entries) {
+            Entry existing = entries.get(ticker);
+            if (existing == null) {
+                entries.putLast(ticker, new Entry(price, fetchedAt));
+            } else {
+                // A price fetched meanwhile by a refresh is not replaced by an older one
+                if (existing.fetchedAt.isBefore(fetchedAt)) {
+                    existing.update(price, fetchedAt);
+                }
+                entries.putLast(ticker, existing);
+            }
+            evictOverflow();
+        }
+    }
+
+    private void refreshed(String ticker, BigDecimal price, Instant fetchedAt) {
+        synchronized (entries) {
+            Entry existing = entries.get(ticker);
+            if (existing == null) {
+                // A ticker nobody has asked for yet is the first candidate for eviction
+                entries.putFirst(ticker, new Entry(price, fetchedAt));
+            } else if (existing.fetchedAt.isBefore(fetchedAt)) {
+                existing.update(price, fetchedAt);
+            }
+            evictOverflow();
+        }
+    }
+
+    // Reads an entry without marking it as recently used
+    private Entry peek(String ticker) {
+        synchronized (entries) {
+            return entries.get(ticker);
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Must hold the lock on entries
+    private void evictOverflow() {
+        while (entries.size() > properties.maxSize()) {
+            Map.Entry<String, Entry> eldest = entries.pollFirstEntry();
+            evictions.increment();
+            log.debug("Evicted cached price for {}", eldest.getKey());
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public record Stats(long hits, long staleHits, long misses, long evictions, long refreshFailures, int size) {
+    }
+
+    private static final class Entry {
+        private volatile BigDecimal price;
+        private volatile Instant fetchedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(BigDecimal price, Instant fetchedAt) {
+            update(price, fetchedAt);
+        }
+
+        private void update(BigDecimal price, Instant fetchedAt) {
+            // Publish the price before the timestamp so readers never pair a new timestamp with an old price
+            this.price = price;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
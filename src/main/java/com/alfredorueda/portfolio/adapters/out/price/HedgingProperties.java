@@ -0,0 +1,44 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of hedged price requests across providers.
+ *
+ * @param percentile latency percentile of the leading provider after which the hedge is sent
+ * @param initialDelay hedge delay used until enough latency samples have been collected
+ * @param minDelay lower bound of the hedge delay
+ * @param maxDelay upper bound of the hedge delay
+ * @param windowSize number of recent latency samples kept per provider
+ * @param minSamples samples needed before a provider's percentile is trusted
+ * @param batchConcurrency tickers of a batch that are quoted at the same time
+ * @param batchTimeout overall deadline of a batch
+ * @param fallbackMaxAge oldest last known price that may be used when no provider answers
+ */
+@ConfigurationProperties(prefix = "price.hedging")
+public record HedgingProperties(
+        @DefaultValue("0.95") double percentile,
+        @DefaultValue("500ms") Duration initialDelay,
+        @DefaultValue("50ms") Duration minDelay,
+        @DefaultValue("2s") Duration maxDelay,
+        @DefaultValue("200") int windowSize,
+        @DefaultValue("20") int minSamples,
+        @DefaultValue("8") int batchConcurrency,
+        @DefaultValue("10s") Duration batchTimeout,
+        @DefaultValue("15m") Duration fallbackMaxAge) {
+
+    public HedgingProperties {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("price.hedging.percentile must be in (0, 1]");
+        }
+        if (batchConcurrency <= 0) {
+            throw new IllegalArgumentException("price.hedging.batch-concurrency must be positive");
+        }
+        if (minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("price.hedging.min-delay must not exceed price.hedging.max-delay");
+        }
+    }
+}
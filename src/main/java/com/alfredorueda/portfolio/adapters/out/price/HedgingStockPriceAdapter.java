@@ -0,0 +1,398 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.PriceUnavailableException;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StockPricePort that fronts a primary and an optional secondary quote provider,
+ * backed by the last known prices.
+ *
+ * Every request goes to the leading provider first. If it has not answered once its
+ * recent latency percentile has passed, the same request is sent to the other provider
+ * (a hedged request) and whichever answers first wins; a provider that fails is raced by
+ * the other one right away. The leader is the primary unless the secondary has been
+ * measurably faster over the recent latency window. Streaming and background refreshes
+ * are not worth a second provider's quota: they only go to the primary and are never hedged.
+ *
+ * When no provider can price the ticker, the last known price is used as long as it is
+ * younger than the fallback maximum age; otherwise the request fails with a
+ * {@link PriceUnavailableException} rather than using a made-up price.
+ *
+ * Per-provider latency, wins, losses and failures are exported as metrics.
+ */
+public class HedgingStockPriceAdapter implements StockPricePort, MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingStockPriceAdapter.class);
+
+    private final Route primary;
+    private final Route secondary;
+    private final LastKnownPriceStore lastKnownPrices;
+    private final HedgingProperties properties;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder lastKnownFallbacks = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+
+    /**
+     * @param secondary the secondary provider, or null to use the primary alone
+     */
+    public HedgingStockPriceAdapter(
+            Provider primary,
+            Provider secondary,
+            LastKnownPriceStore lastKnownPrices,
+            HedgingProperties properties,
+            Clock clock,
+            ScheduledExecutorService scheduler) {
+        this.primary = new Route(primary, properties.windowSize());
+        this.secondary = secondary != null ? new Route(secondary, properties.windowSize()) : null;
+        this.lastKnownPrices = lastKnownPrices;
+        this.properties = properties;
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker) {
+        return fetchStockPrice(ticker, PriceRequestPriority.VALUATION);
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker, PriceRequestPriority priority) {
+        return fetchStockQuote(ticker, priority).price();
+    }
+
+    /**
+     * A last known price used as fallback keeps the time it was observed.
+     */
+    @Override
+    public StockQuote fetchStockQuote(String ticker, PriceRequestPriority priority) {
+        try {
+            return new StockQuote(ticker, hedgedQuote(ticker, priority).join(), clock.instant());
+        } catch (CompletionException e) {
+            return fallbackQuote(ticker, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    @Override
+    public BatchPriceResult fetchStockPrices(Collection<String> tickers) {
+        return fetchStockPrices(tickers, PriceRequestPriority.VALUATION);
+    }
+
+    /**
+     * Quotes at most {@code batchConcurrency} tickers of the batch at a time, starting the
+     * next one as soon as one is priced, without holding a thread per ticker. Tickers that
+     * are not priced before the batch timeout fall back like single requests do; those not
+     * started by then are not requested at all.
+     */
+    @Override
+    public BatchPriceResult fetchStockPrices(Collection<String> tickers, PriceRequestPriority priority) {
+        Map<String, CompletableFuture<BigDecimal>> pending = new LinkedHashMap<>();
+        for (String ticker : new LinkedHashSet<>(tickers)) {
+            pending.put(ticker, new CompletableFuture<>());
+        }
+        long deadline = System.nanoTime() + properties.batchTimeout().toNanos();
+        Queue<Map.Entry<String, CompletableFuture<BigDecimal>>> unstarted = new ConcurrentLinkedQueue<>(pending.entrySet());
+        for (int slot = 0; slot < properties.batchConcurrency(); slot++) {
+            quoteNext(unstarted, priority, deadline);
+        }
+
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Map<String, String> failures = new HashMap<>();
+        Map<String, Instant> quotedAt = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<BigDecimal>> entry : pending.entrySet()) {
+            String ticker = entry.getKey();
+            Throwable cause;
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                prices.put(ticker, entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+                continue;
+            } catch (TimeoutException e) {
+                cause = new TimeoutException("Timed out after " + properties.batchTimeout().toMillis() + " ms");
+            } catch (ExecutionException e) {
+                cause = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cause = e;
+            }
+            try {
+                StockQuote fallback = fallbackQuote(ticker, cause);
+                prices.put(ticker, fallback.price());
+                quotedAt.put(ticker, fallback.timestamp());
+            } catch (RuntimeException e) {
+                failures.put(ticker, String.valueOf(e.getMessage()));
+            }
+        }
+        return new BatchPriceResult(prices, failures, quotedAt);
+    }
+
+    /**
+     * Quotes the unstarted tickers one after another in one slot of a batch. A quote that
+     * completes right away is followed in the same loop rather than by a nested call.
+     */
+    private void quoteNext(Queue<Map.Entry<String, CompletableFuture<BigDecimal>>> unstarted,
+                           PriceRequestPriority priority, long deadline) {
+        Map.Entry<String, CompletableFuture<BigDecimal>> next;
+        while (System.nanoTime() - deadline < 0 && (next = unstarted.poll()) != null) {
+            CompletableFuture<BigDecimal> result = next.getValue();
+            CompletableFuture<BigDecimal> quote = hedgedQuote(next.getKey(), priority);
+            if (!quote.isDone()) {
+                quote.whenComplete((price, error) -> {
+                    complete(result, price, error);
+                    quoteNext(unstarted, priority, deadline);
+                });
+                return;
+            }
+            quote.whenComplete((price, error) -> complete(result, price, error));
+        }
+    }
+
+    private static void complete(CompletableFuture<BigDecimal> result, BigDecimal price, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(price);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        primary.bindTo(registry);
+        if (secondary != null) {
+            secondary.bindTo(registry);
+            Gauge.builder("price.hedge.delay", this, adapter -> adapter.hedgeDelay(adapter.leader()).toMillis())
+                    .description("Current delay in milliseconds before a hedged request is sent")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+        FunctionCounter.builder("price.hedge.requests", hedges, LongAdder::sum)
+                .description("Hedged requests sent to the second provider")
+                .register(registry);
+        FunctionCounter.builder("price.fallbacks", lastKnownFallbacks, LongAdder::sum)
+                .tag("source", "last-known")
+                .register(registry);
+        FunctionCounter.builder("price.unavailable", unavailable, LongAdder::sum)
+                .description("Requests that could not be priced by any provider or recent known price")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<BigDecimal> hedgedQuote(String ticker, PriceRequestPriority priority) {
+        boolean hedged = secondary != null
+                && (priority == PriceRequestPriority.TRADE || priority == PriceRequestPriority.VALUATION);
+        Route leader = hedged ? leader() : primary;
+        Route follower = !hedged ? null : leader == primary ? secondary : primary;
+
+        Race race = new Race(ticker, priority, follower);
+        race.run(leader);
+        if (follower != null && !race.result.isDone()) {
+            ScheduledFuture<?> hedge = scheduler.schedule(
+                    race::hedge, hedgeDelay(leader).toNanos(), TimeUnit.NANOSECONDS);
+            race.result.whenComplete((price, error) -> hedge.cancel(false));
+        }
+        return race.result;
+    }
+
+    /**
+     * The secondary leads only once both providers have enough samples and the
+     * secondary's latency percentile is lower.
+     */
+    private Route leader() {
+        if (secondary == null) {
+            return primary;
+        }
+        Duration primaryLatency = primary.percentileLatency();
+        Duration secondaryLatency = secondary.percentileLatency();
+        if (primaryLatency != null && secondaryLatency != null && secondaryLatency.compareTo(primaryLatency) < 0) {
+            return secondary;
+        }
+        return primary;
+    }
+
+    private Duration hedgeDelay(Route leader) {
+        Duration delay = leader.percentileLatency();
+        if (delay == null) {
+            delay = properties.initialDelay();
+        }
+        if (delay.compareTo(properties.minDelay()) < 0) {
+            return properties.minDelay();
+        }
+        return delay.compareTo(properties.maxDelay()) > 0 ? properties.maxDelay() : delay;
+    }
+
+    private StockQuote fallbackQuote(String ticker, Throwable cause) {
+        Optional<StockQuote> lastKnown = lastKnownPrices.find(ticker)
+                .filter(quote -> quote.ageAt(clock.instant()).compareTo(properties.fallbackMaxAge()) <= 0);
+        if (lastKnown.isPresent()) {
+            log.warn("No provider could price {}, falling back to last known price from {}. Error: {}",
+                    ticker, lastKnown.get().timestamp(), cause.getMessage());
+            lastKnownFallbacks.increment();
+            return lastKnown.get();
+        }
+
+        log.warn("No provider could price {} and no recent price is known. Error: {}", ticker, cause.getMessage());
+        unavailable.increment();
+        throw new PriceUnavailableException("No current price available for " + ticker);
+    }
+
+    /**
+     * A named quote provider taking part in hedged requests.
+     */
+    public record Provider(String name, QuoteProvider quotes) {
+    }
+
+    /**
+     * A provider together with its latency window and counters.
+     */
+    private final class Route {
+        private final Provider provider;
+        private final LatencyWindow latencies;
+        private final LongAdder wins = new LongAdder();
+        private final LongAdder losses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile Timer latencyTimer;
+        // Every request reads the percentile, so the window is sorted only after it has changed
+        private volatile Duration percentileLatency;
+        private final AtomicBoolean percentileOutdated = new AtomicBoolean(true);
+
+        private Route(Provider provider, int windowSize) {
+            this.provider = provider;
+            this.latencies = new LatencyWindow(windowSize);
+        }
+
+        private Duration percentileLatency() {
+            // Cleared before computing, so a sample recorded meanwhile triggers another computation
+            if (percentileOutdated.compareAndSet(true, false)) {
+                percentileLatency = latencies.size() >= properties.minSamples()
+                        ? latencies.percentile(properties.percentile())
+                        : null;
+            }
+            return percentileLatency;
+        }
+
+        private void recordLatency(long nanos) {
+            Duration latency = Duration.ofNanos(nanos);
+            latencies.record(latency);
+            percentileOutdated.set(true);
+            Timer timer = latencyTimer;
+            if (timer != null) {
+                timer.record(latency);
+            }
+        }
+
+        private void bindTo(MeterRegistry registry) {
+            latencyTimer = Timer.builder("price.provider.latency")
+                    .description("Latency of successful quotes per provider")
+                    .tag("provider", provider.name())
+                    .register(registry);
+            FunctionCounter.builder("price.provider.requests", wins, LongAdder::sum)
+                    .tag("provider", provider.name())
+                    .tag("result", "win")
+                    .register(registry);
+            FunctionCounter.builder("price.provider.requests", losses, LongAdder::sum)
+                    .tag("provider", provider.name())
+                    .tag("result", "loss")
+                    .register(registry);
+            FunctionCounter.builder("price.provider.requests", failures, LongAdder::sum)
+                    .tag("provider", provider.name())
+                    .tag("result", "failure")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * One request raced across the providers. The result completes with the first price;
+     * it fails only once every provider that was asked has failed.
+     */
+    private final class Race {
+        private final String ticker;
+        private final PriceRequestPriority priority;
+        private final Route follower;
+        private final CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicBoolean hedged = new AtomicBoolean();
+
+        private Race(String ticker, PriceRequestPriority priority, Route follower) {
+            this.ticker = ticker;
+            this.priority = priority;
+            this.follower = follower;
+        }
+
+        private void run(Route route) {
+            outstanding.incrementAndGet();
+            long startedAt = System.nanoTime();
+
+            CompletableFuture<BigDecimal> quote;
+            try {
+                quote = route.provider.quotes().quote(ticker, priority);
+            } catch (RuntimeException e) {
+                quote = CompletableFuture.failedFuture(e);
+            }
+
+            quote.whenComplete((price, error) -> {
+                if (error == null) {
+                    route.recordLatency(System.nanoTime() - startedAt);
+                    if (result.complete(price)) {
+                        route.wins.increment();
+                    } else {
+                        route.losses.increment();
+                    }
+                    outstanding.decrementAndGet();
+                    return;
+                }
+                route.failures.increment();
+                // Do not wait for the hedge delay once the provider has given up
+                hedge();
+                if (outstanding.decrementAndGet() == 0) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+
+        private void hedge() {
+            if (follower != null && !result.isDone() && hedged.compareAndSet(false, true)) {
+                hedges.increment();
+                log.debug("Hedging price request for {} to {}", ticker, follower.provider.name());
+                run(follower);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceBookPort;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free in-memory book of the latest streamed quote per ticker.
+ *
+ * Every ticker owns an {@link AtomicReference} slot. Readers do a single map lookup
+ * and a volatile read; writers replace the slot's quote with a compare-and-set loop,
+ * so a slow or out-of-order tick never overwrites a newer one and neither side blocks.
+ */
+@Component
+public class InMemoryPriceBook implements PriceBookPort, MeterBinder {
+
+    private final Map<String, AtomicReference<StockQuote>> slots = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder outOfOrder = new LongAdder();
+
+    @Override
+    public boolean update(StockQuote quote) {
+        AtomicReference<StockQuote> slot = slots.get(quote.ticker());
+        if (slot == null) {
+            slot = slots.computeIfAbsent(quote.ticker(), ticker -> new AtomicReference<>());
+        }
+
+        StockQuote current;
+        do {
+            current = slot.get();
+            if (!quote.isNewerThan(current)) {
+                outOfOrder.increment();
+                return false;
+            }
+        } while (!slot.compareAndSet(current, quote));
+
+        accepted.increment();
+        return true;
+    }
+
+    @Override
+    public Optional<StockQuote> find(String ticker) {
+        AtomicReference<StockQuote> slot = slots.get(ticker);
+        return slot == null ? Optional.empty() : Optional.ofNullable(slot.get());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("market-data.ticks", accepted, LongAdder::sum)
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("market-data.ticks", outOfOrder, LongAdder::sum)
+                .tag("result", "out-of-order")
+                .register(registry);
+        Gauge.builder("market-data.book.size", slots, Map::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last successfully fetched quote of every ticker.
+ *
+ * Price adapters record each quote they obtain from a provider and fall back to
+ * the stored quote when the provider is unavailable. Older quotes never replace
+ * newer ones, so concurrent writers cannot move a ticker back in time.
+ */
+@Component
+public class LastKnownPriceStore {
+
+    private final Map<String, StockQuote> quotes = new ConcurrentHashMap<>();
+
+    public void record(StockQuote quote) {
+        quotes.merge(quote.ticker(), quote,
+                (current, candidate) -> candidate.isNewerThan(current) ? candidate : current);
+    }
+
+    public Optional<StockQuote> find(String ticker) {
+        return Optional.ofNullable(quotes.get(ticker));
+    }
+
+    public Collection<StockQuote> all() {
+        return List.copyOf(quotes.values());
+    }
+
+    public int size() {
+        return quotes.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Sliding window over the most recent latency samples of a provider.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    public LatencyWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Window capacity must be positive");
+        }
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the latency below which the given share of the samples fall,
+     * e.g. {@code percentile(0.95)} for the p95, or null while the window is empty.
+     */
+    public Duration percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (size == 0) {
+                return null;
+            }
+            sorted = Arrays.copyOf(samples, size);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+}
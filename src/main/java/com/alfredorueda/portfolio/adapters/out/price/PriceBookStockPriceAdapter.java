@@ -0,0 +1,100 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceBookPort;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.domain.StockQuote;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * StockPricePort decorator that answers from the streamed price book.
+ *
+ * A ticker whose latest streamed quote is younger than the configured maximum age
+ * is priced with a single in-memory lookup; only tickers without a recent tick
+ * are passed on to the delegate.
+ */
+public class PriceBookStockPriceAdapter implements StockPricePort {
+
+    private final PriceBookPort priceBook;
+    private final StockPricePort delegate;
+    private final Duration maxQuoteAge;
+    private final Clock clock;
+
+    public PriceBookStockPriceAdapter(
+            PriceBookPort priceBook,
+            StockPricePort delegate,
+            Duration maxQuoteAge,
+            Clock clock) {
+        this.priceBook = priceBook;
+        this.delegate = delegate;
+        this.maxQuoteAge = maxQuoteAge;
+        this.clock = clock;
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker) {
+        return fetchStockPrice(ticker, PriceRequestPriority.VALUATION);
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker, PriceRequestPriority priority) {
+        return recentQuote(ticker)
+                .map(StockQuote::price)
+                .orElseGet(() -> delegate.fetchStockPrice(ticker, priority));
+    }
+
+    @Override
+    public BatchPriceResult fetchStockPrices(Collection<String> tickers) {
+        return fetchStockPrices(tickers, PriceRequestPriority.VALUATION);
+    }
+
+    @Override
+    public BatchPriceResult fetchStockPrices(Collection<String> tickers, PriceRequestPriority priority) {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String ticker : tickers) {
+            Optional<StockQuote> quote = recentQuote(ticker);
+            if (quote.isPresent()) {
+                prices.put(ticker, quote.get().price());
+            } else {
+                missing.add(ticker);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return new BatchPriceResult(prices, Map.of());
+        }
+
+        BatchPriceResult fetched = delegate.fetchStockPrices(missing, priority);
+        prices.putAll(fetched.prices());
+        return new BatchPriceResult(prices, fetched.failures(), fetched.quotedAt());
+    }
+
+    /**
+     * Tickers with a recent streamed quote need no refresh and do not use up the limit.
+     */
+    @Override
+    public BatchPriceResult refreshStockPrices(List<String> tickers, int limit, PriceRequestPriority priority) {
+        List<String> withoutRecentQuote = tickers.stream()
+                .filter(ticker -> recentQuote(ticker).isEmpty())
+                .toList();
+        return delegate.refreshStockPrices(withoutRecentQuote, limit, priority);
+    }
+
+    private Optional<StockQuote> recentQuote(String ticker) {
+        return priceBook.find(ticker)
+                .filter(quote -> quote.ageAt(clock.instant()).compareTo(maxQuoteAge) < 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the in-memory stock price cache.
+ *
+ * @param ttl how long a cached price is considered fresh
+ * @param staleWindow how long after the TTL a stale price may still be served while it is refreshed
+ * @param maxSize maximum number of tickers kept in the cache
+ * @param tickerTtl per-ticker TTL overrides, e.g. {@code price.cache.ticker-ttl.AAPL=5s}
+ */
+@ConfigurationProperties(prefix = "price.cache")
+public record PriceCacheProperties(
+        @DefaultValue("15s") Duration ttl,
+        @DefaultValue("60s") Duration staleWindow,
+        @DefaultValue("1000") int maxSize,
+        Map<String, Duration> tickerTtl) {
+
+    public PriceCacheProperties {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("price.cache.max-size must be positive");
+        }
+        tickerTtl = tickerTtl == null ? Map.of() : Map.copyOf(tickerTtl);
+    }
+
+    public Duration ttlFor(String ticker) {
+        return tickerTtl.getOrDefault(ticker, ttl);
+    }
+}
@@ -0,0 +1,21 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the on-disk snapshot of last known prices.
+ *
+ * @param file snapshot file; snapshots are disabled when it is not set
+ * @param interval how often the snapshot is written
+ * @param maxAge quotes older than this are not restored at startup
+ */
+@ConfigurationProperties(prefix = "price.snapshot")
+public record PriceSnapshotProperties(
+        Path file,
+        @DefaultValue("30s") Duration interval,
+        @DefaultValue("15m") Duration maxAge) {
+}
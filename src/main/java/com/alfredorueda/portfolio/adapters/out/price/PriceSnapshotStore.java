@@ -0,0 +1,197 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Persists the last known prices to a local file so they survive a restart.
+ *
+ * On start the snapshot is read back, before the web server accepts traffic, and every
+ * quote younger than the maximum age is restored into the {@link LastKnownPriceStore}
+ * and handed to the restore listener. While running, the store is written out
+ * periodically and once more on shutdown.
+ *
+ * The file is a compact binary list of (ticker, price, timestamp) entries. It is written
+ * to a temporary file first and then moved over the previous snapshot, so a crash while
+ * writing never leaves a truncated snapshot behind.
+ */
+public class PriceSnapshotStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceSnapshotStore.class);
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 1;
+
+    private final LastKnownPriceStore lastKnownPrices;
+    private final Path file;
+    private final Duration interval;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Consumer<StockQuote> restoreListener;
+
+    private ScheduledExecutorService scheduler;
+
+    public PriceSnapshotStore(
+            LastKnownPriceStore lastKnownPrices,
+            PriceSnapshotProperties properties,
+            Clock clock,
+            Consumer<StockQuote> restoreListener) {
+        this.lastKnownPrices = lastKnownPrices;
+        this.file = properties.file();
+        this.interval = properties.interval();
+        this.maxAge = properties.maxAge();
+        this.clock = clock;
+        this.restoreListener = restoreListener;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        restore();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("price-snapshot").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::saveQuietly,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        saveQuietly();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Starts before the web server so restored prices are available to the first request.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    /**
+     * Restores the quotes of the snapshot that are younger than the maximum age.
+     * A missing or unreadable snapshot is logged and otherwise ignored.
+     *
+     * @return the number of restored quotes
+     */
+    public int restore() {
+        if (!Files.exists(file)) {
+            log.info("No price snapshot found at {}", file);
+            return 0;
+        }
+        List<StockQuote> quotes;
+        try {
+            quotes = read(file);
+        } catch (IOException e) {
+            log.warn("Could not read price snapshot {}: {}", file, e.getMessage());
+            return 0;
+        }
+
+        Instant now = clock.instant();
+        int restored = 0;
+        for (StockQuote quote : quotes) {
+            if (quote.ageAt(now).compareTo(maxAge) > 0) {
+                continue;
+            }
+            lastKnownPrices.record(quote);
+            restoreListener.accept(quote);
+            restored++;
+        }
+        log.info("Restored {} of {} last known prices from {}", restored, quotes.size(), file);
+        return restored;
+    }
+
+    /**
+     * Writes the current last known prices to the snapshot file.
+     */
+    public void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        write(lastKnownPrices.all(), temporary);
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+            log.debug("Wrote {} last known prices to {}", lastKnownPrices.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write price snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    static void write(Collection<StockQuote> quotes, Path target) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(quotes.size());
+            for (StockQuote quote : quotes) {
+                byte[] unscaled = quote.price().unscaledValue().toByteArray();
+                out.writeUTF(quote.ticker());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+                out.writeByte(quote.price().scale());
+                out.writeLong(quote.timestamp().toEpochMilli());
+            }
+        }
+    }
+
+    static List<StockQuote> read(Path source) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a price snapshot or unsupported version");
+            }
+            int count = in.readInt();
+            List<StockQuote> quotes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String ticker = in.readUTF();
+                byte[] unscaled = in.readNBytes(in.readUnsignedByte());
+                int scale = in.readByte();
+                Instant timestamp = Instant.ofEpochMilli(in.readLong());
+                quotes.add(new StockQuote(ticker, new BigDecimal(new BigInteger(unscaled), scale), timestamp));
+            }
+            return quotes;
+        }
+    }
+}
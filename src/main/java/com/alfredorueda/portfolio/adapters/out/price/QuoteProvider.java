@@ -0,0 +1,18 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous source of stock prices that can be raced against other sources.
+ *
+ * Unlike a {@link com.alfredorueda.portfolio.application.port.out.StockPricePort}, a provider
+ * does not fall back to substitute prices: when it cannot price a ticker the returned
+ * future fails, so the caller can decide what to use instead.
+ */
+public interface QuoteProvider {
+
+    CompletableFuture<BigDecimal> quote(String ticker, PriceRequestPriority priority);
+}
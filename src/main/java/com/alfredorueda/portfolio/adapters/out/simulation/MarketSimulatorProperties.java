@@ -0,0 +1,37 @@
+package com.alfredorueda.portfolio.adapters.out.simulation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the simulated market used when {@code finhub.api.test-mode=true}.
+ *
+ * @param seed seed of the simulation; the same seed yields the same price path per ticker
+ * @param drift annualized drift of every ticker
+ * @param volatility annualized volatility of every ticker
+ * @param tickInterval simulated time between two price moves
+ * @param initialPrices starting prices, e.g. {@code market-simulator.initial-prices.AAPL=150.00};
+ *                      other tickers start at a price derived from their symbol
+ */
+@ConfigurationProperties(prefix = "market-simulator")
+public record MarketSimulatorProperties(
+        @DefaultValue("42") long seed,
+        @DefaultValue("0.05") double drift,
+        @DefaultValue("0.30") double volatility,
+        @DefaultValue("1s") Duration tickInterval,
+        Map<String, BigDecimal> initialPrices) {
+
+    public MarketSimulatorProperties {
+        if (volatility < 0) {
+            throw new IllegalArgumentException("market-simulator.volatility must not be negative");
+        }
+        if (tickInterval.isZero() || tickInterval.isNegative()) {
+            throw new IllegalArgumentException("market-simulator.tick-interval must be positive");
+        }
+        initialPrices = initialPrices == null ? Map.of() : Map.copyOf(initialPrices);
+    }
+}
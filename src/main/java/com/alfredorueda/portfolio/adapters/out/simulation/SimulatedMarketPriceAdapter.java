@@ -0,0 +1,129 @@
+package com.alfredorueda.portfolio.adapters.out.simulation;
+
+import com.alfredorueda.portfolio.adapters.out.price.QuoteProvider;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seeded market simulator that moves every ticker along its own geometric Brownian motion.
+ *
+ * The Brownian path of a ticker is not stepped tick by tick: its value at any tick is
+ * derived directly from the seed, the symbol and the tick index by descending a Brownian
+ * bridge over a fixed horizon, drawing one Gaussian per level. A read therefore costs
+ * O(log ticks) however long ago the ticker was last read, or whether it was read at all,
+ * the path is independent of how often it is observed, and readers share no mutable state.
+ */
+public class SimulatedMarketPriceAdapter implements StockPricePort, QuoteProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedMarketPriceAdapter.class);
+    private static final double SECONDS_PER_YEAR = Duration.ofDays(365).toSeconds();
+    // Ticks covered by the bridge; beyond ~35,000 years at one tick per second the price stops moving
+    private static final long HORIZON_TICKS = 1L << 50;
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final MarketSimulatorProperties properties;
+    private final Clock clock;
+    private final long startMillis;
+    private final long tickMillis;
+    private final double stepDrift;
+    private final double stepVolatility;
+    private final Map<String, SimulatedTicker> tickers = new ConcurrentHashMap<>();
+
+    public SimulatedMarketPriceAdapter(MarketSimulatorProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.startMillis = clock.millis();
+        this.tickMillis = Math.max(1, properties.tickInterval().toMillis());
+
+        double dt = tickMillis / 1000.0 / SECONDS_PER_YEAR;
+        double sigma = properties.volatility();
+        this.stepDrift = (properties.drift() - sigma * sigma / 2) * dt;
+        this.stepVolatility = sigma * Math.sqrt(dt);
+
+        log.info("Simulated market started with seed {}, drift {}, volatility {} and a tick every {}",
+                properties.seed(), properties.drift(), sigma, properties.tickInterval());
+    }
+
+    @Override
+    public BigDecimal fetchStockPrice(String ticker) {
+        long tick = Math.min((clock.millis() - startMillis) / tickMillis, HORIZON_TICKS);
+        return tickers.computeIfAbsent(ticker, this::newTicker).priceAt(tick);
+    }
+
+    @Override
+    public CompletableFuture<BigDecimal> quote(String ticker, PriceRequestPriority priority) {
+        return CompletableFuture.completedFuture(fetchStockPrice(ticker));
+    }
+
+    private SimulatedTicker newTicker(String ticker) {
+        BigDecimal initialPrice = properties.initialPrices().get(ticker);
+        double startPrice = initialPrice != null
+                ? initialPrice.doubleValue()
+                : 50 + Math.abs(ticker.hashCode() % 450);
+        return new SimulatedTicker(properties.seed() * 31 + ticker.hashCode(), startPrice);
+    }
+
+    /**
+     * Price path of one ticker. It is immutable, so concurrent readers never synchronize.
+     */
+    private final class SimulatedTicker {
+        private final long seed;
+        private final double startPrice;
+
+        private SimulatedTicker(long seed, double startPrice) {
+            this.seed = seed;
+            this.startPrice = startPrice;
+        }
+
+        private BigDecimal priceAt(long tick) {
+            double price = startPrice * Math.exp(stepDrift * tick + stepVolatility * brownianAt(tick));
+            return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        /**
+         * Value at {@code tick} of a standard Brownian motion sampled once per tick. The end of
+         * the horizon is drawn first; then each interval containing the tick is split at its
+         * midpoint, whose value given both ends is normal around their mean with variance a
+         * quarter of the interval length. Every midpoint has its own seeded draw, so the same
+         * tick always gets the same value.
+         */
+        private double brownianAt(long tick) {
+            long from = 0;
+            long to = HORIZON_TICKS;
+            double atFrom = 0;
+            double atTo = Math.sqrt(HORIZON_TICKS) * gaussian(HORIZON_TICKS);
+            while (true) {
+                if (tick == from) {
+                    return atFrom;
+                }
+                if (tick == to) {
+                    return atTo;
+                }
+                long middle = (from + to) >>> 1;
+                double atMiddle = (atFrom + atTo) / 2 + Math.sqrt((to - from) / 4.0) * gaussian(middle);
+                if (tick < middle) {
+                    to = middle;
+                    atTo = atMiddle;
+                } else {
+                    from = middle;
+                    atFrom = atMiddle;
+                }
+            }
+        }
+
+        private double gaussian(long point) {
+            return new SplittableRandom(seed + point * SEED_INCREMENT).nextGaussian();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.alfredorueda.portfolio.application.port.in;
+
+import com.alfredorueda.portfolio.domain.StockQuote;
+
+/**
+ * Interface for pushing market data into the application.
+ * Tick feeds call it for every quote they receive.
+ */
+public interface MarketDataIngestionUseCase {
+    /**
+     * Records a streamed quote. Quotes older than the one already known for
+     * the ticker are ignored.
+     * @param quote The quote received from the feed
+     * @return true if the quote became the current price of its ticker
+     */
+    boolean onQuote(StockQuote quote);
+}
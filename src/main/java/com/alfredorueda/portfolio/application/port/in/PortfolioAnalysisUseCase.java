@@ -1,9 +1,11 @@
 package com.alfredorueda.portfolio.application.port.in;
 
 import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionPage;
 import com.alfredorueda.portfolio.domain.InvestmentSummaryDto;
-import com.alfredorueda.portfolio.domain.Transaction;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -11,12 +13,14 @@ import org.springframework.transaction.annotation.Transactional;
  */
 public interface PortfolioAnalysisUseCase {
     /**
-     * Retrieves transactions for a portfolio with optional filtering criteria
+     * Retrieves one page of a portfolio's transactions, newest first
      * @param filter The filter criteria for transactions
-     * @return List of transactions matching the filter criteria
+     * @param after Where the page starts, or null for the first page
+     * @param limit The maximum number of transactions in the page
+     * @return The page of transactions and the cursor of the next page, if any
      */
     @Transactional(readOnly = true)
-    List<Transaction> getTransactions(TransactionFilter filter);
+    TransactionPage getTransactions(TransactionFilter filter, TransactionCursor after, int limit);
     
     /**
      * Retrieves portfolio performance metrics
@@ -24,5 +28,5 @@ public interface PortfolioAnalysisUseCase {
      * @param limit Optional limit to the number of results
      * @return List of investment summaries
      */
-    List<InvestmentSummaryDto> getPortfolioPerformance(String portfolioId, Integer limit);
+    List<InvestmentSummaryDto> getPortfolioPerformance(String portfolioId, Optional<Integer> limit);
 }
\ No newline at end of file
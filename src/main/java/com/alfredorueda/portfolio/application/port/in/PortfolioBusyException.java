@@ -0,0 +1,11 @@
+package com.alfredorueda.portfolio.application.port.in;
+
+/**
+ * Thrown when a portfolio already has as many commands queued as it may have.
+ * Nothing was changed; the caller may retry once the queued commands have run.
+ */
+public class PortfolioBusyException extends RuntimeException {
+    public PortfolioBusyException(String message) {
+        super(message);
+    }
+}
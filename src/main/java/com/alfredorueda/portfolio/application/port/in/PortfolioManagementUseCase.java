@@ -1,5 +1,6 @@
 package com.alfredorueda.portfolio.application.port.in;
 
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
 import com.alfredorueda.portfolio.domain.Portfolio;
 import java.math.BigDecimal;
 
@@ -8,7 +9,9 @@ import java.math.BigDecimal;
  */
 public interface PortfolioManagementUseCase {
     Portfolio createPortfolio(String ownerName);
+    Portfolio createPortfolio(String ownerName, CostBasisMethod costBasisMethod);
     Portfolio getPortfolio(String id);
     void deposit(String portfolioId, BigDecimal amount);
     void withdraw(String portfolioId, BigDecimal amount);
+    void changeCostBasisMethod(String portfolioId, CostBasisMethod costBasisMethod);
 }
\ No newline at end of file
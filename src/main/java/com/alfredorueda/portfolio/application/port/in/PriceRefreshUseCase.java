@@ -0,0 +1,16 @@
+package com.alfredorueda.portfolio.application.port.in;
+
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+
+/**
+ * Interface for keeping the prices of held stocks fresh ahead of demand.
+ */
+public interface PriceRefreshUseCase {
+    /**
+     * Refreshes the prices of held tickers whose cached price is no longer fresh,
+     * the most widely held first.
+     * @param budget Maximum number of tickers fetched from the provider in this run
+     * @return The prices fetched and the tickers that could not be refreshed
+     */
+    BatchPriceResult refreshHeldPrices(int budget);
+}
@@ -1,7 +1,25 @@
 package com.alfredorueda.portfolio.application.port.in;
 
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+
 import java.math.BigDecimal;
+import java.util.Collection;
 
 public interface StockPriceUseCase {
     BigDecimal getCurrentPrice(String ticker);
+
+    /**
+     * Retrieves the current prices of several tickers in one batched step
+     * @param tickers The tickers to price
+     * @return The resolved prices and the tickers that could not be priced
+     */
+    BatchPriceResult getCurrentPrices(Collection<String> tickers);
+
+    /**
+     * Retrieves prices for live streaming. Streaming refreshes run at the lowest priority,
+     * so they yield provider quota to trades and valuations.
+     * @param tickers The tickers to price
+     * @return The resolved prices and the tickers that could not be priced
+     */
+    BatchPriceResult getStreamingPrices(Collection<String> tickers);
 }
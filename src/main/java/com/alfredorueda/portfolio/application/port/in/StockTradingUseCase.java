@@ -2,10 +2,13 @@ package com.alfredorueda.portfolio.application.port.in;
 
 import com.alfredorueda.portfolio.domain.SellResult;
 
+import java.util.List;
+
 /**
  * Interface for stock trading operations
  */
 public interface StockTradingUseCase {
     void buyStock(String portfolioId, String ticker, int quantity);
     SellResult sellStock(String portfolioId, String ticker, int quantity);
+    SellResult sellStock(String portfolioId, String ticker, int quantity, List<String> lotIds);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.alfredorueda.portfolio.application.port.out;
+
+import java.util.List;
+
+public interface HeldTickersPort {
+    /**
+     * Returns every ticker held by at least one portfolio, the most widely held first.
+     */
+    List<String> findHeldTickersByPopularity();
+}
@@ -0,0 +1,13 @@
+package com.alfredorueda.portfolio.application.port.out;
+
+import com.alfredorueda.portfolio.domain.Portfolio;
+import java.util.Optional;
+
+public interface LoadPortfolioForTradePort {
+    /**
+     * Loads a portfolio to buy or sell one ticker: the portfolio root and that ticker's
+     * holding with its lots, but no other holding. The returned portfolio can only trade
+     * {@code ticker}.
+     */
+    Optional<Portfolio> findByIdForTrade(String id, String ticker);
+}
@@ -4,5 +4,16 @@ import com.alfredorueda.portfolio.domain.Portfolio;
 import java.util.Optional;
 
 public interface LoadPortfolioPort {
+    /**
+     * Loads the portfolio root only. Holdings are loaded when first used, so this suits
+     * commands that change only the balance or settings of the portfolio.
+     */
     Optional<Portfolio> findById(String id);
+
+    /**
+     * Loads the whole aggregate, every holding with its lots, in a single query.
+     */
+    Optional<Portfolio> findAggregateById(String id);
+
+    boolean existsById(String id);
 }
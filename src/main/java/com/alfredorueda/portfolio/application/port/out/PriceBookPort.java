@@ -0,0 +1,15 @@
+package com.alfredorueda.portfolio.application.port.out;
+
+import com.alfredorueda.portfolio.domain.StockQuote;
+
+import java.util.Optional;
+
+public interface PriceBookPort {
+    /**
+     * Stores the quote unless a newer quote is already held for the ticker.
+     * @return true if the quote was stored
+     */
+    boolean update(StockQuote quote);
+
+    Optional<StockQuote> find(String ticker);
+}
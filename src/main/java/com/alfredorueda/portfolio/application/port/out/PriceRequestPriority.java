@@ -0,0 +1,13 @@
+package com.alfredorueda.portfolio.application.port.out;
+
+/**
+ * Urgency of a price request. When the price provider's quota is exhausted, queued
+ * requests are served in declaration order: trades first, then valuations, then streaming,
+ * and background refreshes only with whatever quota is left.
+ */
+public enum PriceRequestPriority {
+    TRADE,
+    VALUATION,
+    STREAMING,
+    BACKGROUND
+}
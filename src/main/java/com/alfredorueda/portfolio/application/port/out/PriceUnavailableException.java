@@ -0,0 +1,11 @@
+package com.alfredorueda.portfolio.application.port.out;
+
+/**
+ * Thrown by a {@link StockPricePort} when no provider can price a ticker and no
+ * sufficiently recent price is known. Callers must not substitute a made-up price.
+ */
+public class PriceUnavailableException extends RuntimeException {
+    public PriceUnavailableException(String message) {
+        super(message);
+    }
+}
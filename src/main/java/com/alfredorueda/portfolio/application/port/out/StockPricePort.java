@@ -1,7 +1,74 @@
 package com.alfredorueda.portfolio.application.port.out;
 
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.domain.StockQuote;
+
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 public interface StockPricePort {
     BigDecimal fetchStockPrice(String ticker);
+
+    /**
+     * Fetches the price of a ticker on behalf of a caller with the given priority.
+     * Implementations that share a limited quota serve higher priorities first; the
+     * default implementation ignores the priority.
+     */
+    default BigDecimal fetchStockPrice(String ticker, PriceRequestPriority priority) {
+        return fetchStockPrice(ticker);
+    }
+
+    /**
+     * Fetches the price of a ticker together with the time it was observed. A price that was
+     * not observed just now, e.g. a last known price used because no provider answered, keeps
+     * its own time. The default implementation treats every price as current.
+     */
+    default StockQuote fetchStockQuote(String ticker, PriceRequestPriority priority) {
+        return new StockQuote(ticker, fetchStockPrice(ticker, priority), Instant.now());
+    }
+
+    /**
+     * Fetches the prices of several tickers in one step.
+     * A ticker that cannot be priced is reported as a failure instead of failing the whole batch.
+     * The default implementation resolves the tickers one by one; implementations backed by
+     * remote calls should override it to fetch concurrently.
+     * @param tickers The tickers to price, duplicates are ignored
+     * @return The resolved prices and the per-ticker failures
+     */
+    default BatchPriceResult fetchStockPrices(Collection<String> tickers) {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Map<String, String> failures = new HashMap<>();
+        for (String ticker : new LinkedHashSet<>(tickers)) {
+            try {
+                prices.put(ticker, fetchStockPrice(ticker));
+            } catch (RuntimeException e) {
+                failures.put(ticker, String.valueOf(e.getMessage()));
+            }
+        }
+        return new BatchPriceResult(prices, failures);
+    }
+
+    /**
+     * Batch variant of {@link #fetchStockPrice(String, PriceRequestPriority)}.
+     */
+    default BatchPriceResult fetchStockPrices(Collection<String> tickers, PriceRequestPriority priority) {
+        return fetchStockPrices(tickers);
+    }
+
+    /**
+     * Fetches prices ahead of demand so later requests for them are served from memory.
+     * At most {@code limit} tickers are fetched, taken in the given order; implementations
+     * that keep prices skip tickers whose price is still fresh. The default implementation
+     * fetches the first {@code limit} distinct tickers.
+     * @param tickers The tickers to refresh, most important first
+     * @return The prices fetched and the tickers that could not be refreshed
+     */
+    default BatchPriceResult refreshStockPrices(List<String> tickers, int limit, PriceRequestPriority priority) {
+        return fetchStockPrices(tickers.stream().distinct().limit(limit).toList(), priority);
+    }
 }
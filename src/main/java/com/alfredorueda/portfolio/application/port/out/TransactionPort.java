@@ -3,6 +3,8 @@ package com.alfredorueda.portfolio.application.port.out;
 import com.alfredorueda.portfolio.domain.Transaction;
 import com.alfredorueda.portfolio.domain.TransactionType;
 import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionPage;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,4 +19,13 @@ public interface TransactionPort {
      * @return List of transactions matching the filter criteria
      */
     List<Transaction> findByPortfolioId(TransactionFilter filter);
+
+    /**
+     * Finds one page of the transactions matching the filter, newest first.
+     * @param filter The filter criteria for transactions
+     * @param after Where the page starts, or null for the first page
+     * @param limit The maximum number of transactions in the page
+     * @return The page, with the cursor of the next page if there is one
+     */
+    TransactionPage findPageByPortfolioId(TransactionFilter filter, TransactionCursor after, int limit);
 }
@@ -0,0 +1,43 @@
+package com.alfredorueda.portfolio.application.port.out.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Outcome of fetching prices for several tickers at once.
+ *
+ * A batch can succeed partially: tickers whose price was resolved are in {@code prices},
+ * tickers that could not be resolved are in {@code failures} together with the reason.
+ * Prices that were not observed just now, e.g. last known prices used because no provider
+ * answered, have their observation time in {@code quotedAt}; the others are current.
+ */
+public record BatchPriceResult(
+        Map<String, BigDecimal> prices, Map<String, String> failures, Map<String, Instant> quotedAt) {
+
+    public BatchPriceResult {
+        prices = Map.copyOf(prices);
+        failures = Map.copyOf(failures);
+        quotedAt = Map.copyOf(quotedAt);
+    }
+
+    public BatchPriceResult(Map<String, BigDecimal> prices, Map<String, String> failures) {
+        this(prices, failures, Map.of());
+    }
+
+    public Optional<BigDecimal> priceOf(String ticker) {
+        return Optional.ofNullable(prices.get(ticker));
+    }
+
+    /**
+     * When the price of the ticker was observed, if it is not current.
+     */
+    public Optional<Instant> quoteTimeOf(String ticker) {
+        return Optional.ofNullable(quotedAt.get(ticker));
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.alfredorueda.portfolio.application.port.out.dto;
+
+import com.alfredorueda.portfolio.domain.Transaction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in a portfolio's transaction history, which is ordered newest first by
+ * timestamp and then by id. A page that starts after a cursor holds the transactions
+ * strictly older than it, so fetching it costs the same however deep it is.
+ */
+public record TransactionCursor(LocalDateTime timestamp, String id) {
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getTimestamp(), transaction.getId());
+    }
+}
@@ -0,0 +1,22 @@
+package com.alfredorueda.portfolio.application.port.out.dto;
+
+import com.alfredorueda.portfolio.domain.Transaction;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One page of a portfolio's transaction history, newest first.
+ *
+ * {@code nextCursor} is where the following page starts, or null on the last page.
+ */
+public record TransactionPage(List<Transaction> transactions, TransactionCursor nextCursor) {
+
+    public TransactionPage {
+        transactions = List.copyOf(transactions);
+    }
+
+    public Optional<TransactionCursor> next() {
+        return Optional.ofNullable(nextCursor);
+    }
+}
@@ -0,0 +1,36 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.application.port.in.MarketDataIngestionUseCase;
+import com.alfredorueda.portfolio.application.port.out.PriceBookPort;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * Service responsible for ingesting streamed market data into the price book
+ */
+@Service
+public class MarketDataIngestionService implements MarketDataIngestionUseCase {
+    
+    private static final Logger log = LoggerFactory.getLogger(MarketDataIngestionService.class);
+    
+    private final PriceBookPort priceBookPort;
+    
+    public MarketDataIngestionService(PriceBookPort priceBookPort) {
+        this.priceBookPort = priceBookPort;
+    }
+    
+    @Override
+    public boolean onQuote(StockQuote quote) {
+        if (quote.ticker() == null || quote.ticker().isBlank()
+                || quote.price() == null || quote.price().compareTo(BigDecimal.ZERO) <= 0
+                || quote.timestamp() == null) {
+            log.warn("Ignoring invalid quote {}", quote);
+            return false;
+        }
+        return priceBookPort.update(quote);
+    }
+}
@@ -3,15 +3,20 @@ package com.alfredorueda.portfolio.application.service;
 import com.alfredorueda.portfolio.application.port.in.PortfolioAnalysisUseCase;
 import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
 import com.alfredorueda.portfolio.application.port.out.LoadPortfolioPort;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
 import com.alfredorueda.portfolio.application.port.out.StockPricePort;
 import com.alfredorueda.portfolio.application.port.out.TransactionPort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionPage;
 import com.alfredorueda.portfolio.domain.*;
 import com.alfredorueda.portfolio.domain.exception.PortfolioNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,6 +27,8 @@ import java.util.stream.Collectors;
 @Service
 public class PortfolioAnalysisService implements PortfolioAnalysisUseCase {
     
+    private static final Logger log = LoggerFactory.getLogger(PortfolioAnalysisService.class);
+    
     private final LoadPortfolioPort loadPortfolioPort;
     private final TransactionPort transactionPort;
     private final StockPricePort stockPricePort;
@@ -35,22 +42,23 @@ public class PortfolioAnalysisService implements PortfolioAnalysisUseCase {
         this.stockPricePort = stockPricePort;
     }
     
-    private Portfolio getPortfolio(String id) {
-        return loadPortfolioPort.findById(id)
-                .orElseThrow(() -> new PortfolioNotFoundException("Portfolio not found with id: " + id));
+    private void checkPortfolioExists(String id) {
+        if (!loadPortfolioPort.existsById(id)) {
+            throw new PortfolioNotFoundException("Portfolio not found with id: " + id);
+        }
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<Transaction> getTransactions(TransactionFilter filter) {
-        return transactionPort.findByPortfolioId(filter);
+    public TransactionPage getTransactions(TransactionFilter filter, TransactionCursor after, int limit) {
+        return transactionPort.findPageByPortfolioId(filter, after, limit);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<InvestmentSummaryDto> getPortfolioPerformance(String portfolioId, Integer limit) {
+    public List<InvestmentSummaryDto> getPortfolioPerformance(String portfolioId, Optional<Integer> limit) {
         // Verify portfolio exists
-        getPortfolio(portfolioId);
+        checkPortfolioExists(portfolioId);
         
         // Get all transactions for this portfolio
         List<Transaction> allTransactions = transactionPort.findByPortfolioId(
@@ -61,6 +69,13 @@ public class PortfolioAnalysisService implements PortfolioAnalysisUseCase {
                 .filter(t -> t.getTicker() != null)
                 .collect(Collectors.groupingBy(Transaction::getTicker));
         
+        // Resolve the current price of every ticker still held in one batched call
+        Set<String> heldTickers = transactionsByTicker.entrySet().stream()
+                .filter(entry -> remainingShares(entry.getValue()) > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        BatchPriceResult currentPrices = stockPricePort.fetchStockPrices(heldTickers, PriceRequestPriority.VALUATION);
+        
         List<InvestmentSummaryDto> summaries = new ArrayList<>();
         
         for (Map.Entry<String, List<Transaction>> entry : transactionsByTicker.entrySet()) {
@@ -68,7 +83,7 @@ public class PortfolioAnalysisService implements PortfolioAnalysisUseCase {
             List<Transaction> tickerTransactions = entry.getValue();
             
             // Calculate performance metrics for this ticker
-            InvestmentSummaryDto summary = calculateTickerPerformance(ticker, tickerTransactions);
+            InvestmentSummaryDto summary = calculateTickerPerformance(ticker, tickerTransactions, currentPrices);
             if (summary != null) {
                 summaries.add(summary);
             }
@@ -85,45 +100,60 @@ public class PortfolioAnalysisService implements PortfolioAnalysisUseCase {
         return summaries;
     }
     
-    private InvestmentSummaryDto calculateTickerPerformance(String ticker, List<Transaction> transactions) {
+    private int remainingShares(List<Transaction> transactions) {
+        int remaining = 0;
+        for (Transaction t : transactions) {
+            if (t.getType() == TransactionType.PURCHASE) {
+                remaining += t.getQuantity();
+            } else if (t.getType() == TransactionType.SALE) {
+                remaining -= t.getQuantity();
+            }
+        }
+        return remaining;
+    }
+    
+    private InvestmentSummaryDto calculateTickerPerformance(
+            String ticker, List<Transaction> transactions, BatchPriceResult currentPrices) {
         int totalSharesPurchased = 0;
         int totalSharesSold = 0;
-        BigDecimal totalInvested = BigDecimal.ZERO;
-        BigDecimal totalProceeds = BigDecimal.ZERO;
-        BigDecimal totalProfit = BigDecimal.ZERO;
+        Money totalInvested = Money.ZERO;
+        Money totalProceeds = Money.ZERO;
+        Money totalProfit = Money.ZERO;
         
         for (Transaction t : transactions) {
             if (t.getType() == TransactionType.PURCHASE) {
                 totalSharesPurchased += t.getQuantity();
-                totalInvested = totalInvested.add(t.getTotalAmount());
+                totalInvested = totalInvested.plus(Money.of(t.getTotalAmount()));
             } else if (t.getType() == TransactionType.SALE) {
                 totalSharesSold += t.getQuantity();
-                totalProceeds = totalProceeds.add(t.getTotalAmount());
-                totalProfit = totalProfit.add(t.getProfit());
+                totalProceeds = totalProceeds.plus(Money.of(t.getTotalAmount()));
+                totalProfit = totalProfit.plus(Money.of(t.getProfit()));
             }
         }
         
         // Only include tickers that still have shares
         int remainingShares = totalSharesPurchased - totalSharesSold;
         if (remainingShares > 0) {
-            BigDecimal averageBuyPrice = totalInvested.divide(
-                    BigDecimal.valueOf(totalSharesPurchased), 
-                    2, 
-                    RoundingMode.HALF_UP);
+            Money averageBuyPrice = totalInvested.dividedBy(totalSharesPurchased);
             
-            BigDecimal currentPrice = stockPricePort.fetchStockPrice(ticker);
-            BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(remainingShares));
-            BigDecimal unrealizedGain = currentValue.subtract(
-                    averageBuyPrice.multiply(BigDecimal.valueOf(remainingShares)));
+            // A ticker that could not be priced is still reported, without market value
+            BigDecimal currentPrice = currentPrices.priceOf(ticker).orElse(null);
+            BigDecimal unrealizedGain = null;
+            if (currentPrice != null) {
+                Money currentValue = Money.of(currentPrice).times(remainingShares);
+                unrealizedGain = currentValue.minus(averageBuyPrice.times(remainingShares)).toBigDecimal();
+            } else {
+                log.warn("No current price for {}: {}", ticker, currentPrices.failures().get(ticker));
+            }
             
             return new InvestmentSummaryDto(
                     ticker,
                     totalSharesPurchased,
                     totalSharesSold,
-                    totalInvested,
-                    totalProceeds,
-                    totalProfit,
-                    averageBuyPrice,
+                    totalInvested.toBigDecimal(),
+                    totalProceeds.toBigDecimal(),
+                    totalProfit.toBigDecimal(),
+                    averageBuyPrice.toBigDecimal(),
                     currentPrice,
                     unrealizedGain
             );
@@ -0,0 +1,193 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.application.port.in.PortfolioBusyException;
+import com.alfredorueda.portfolio.application.port.in.PortfolioManagementUseCase;
+import com.alfredorueda.portfolio.application.port.in.StockTradingUseCase;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
+import com.alfredorueda.portfolio.domain.Portfolio;
+import com.alfredorueda.portfolio.domain.SellResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs portfolio commands on single-writer lanes, one lane per portfolio.
+ *
+ * Commands for the same portfolio are queued behind each other and run one at a time,
+ * each in its own transaction on a virtual thread, so they never race on the balance.
+ * Commands for different portfolios share nothing and run in parallel. A lane exists
+ * only while it has queued commands. The caller waits for its command and receives
+ * its result or exception unchanged.
+ *
+ * Trades are priced before they are queued, so the lane only ever waits on the
+ * database and never on the price provider. A lane holds at most {@code maxQueued}
+ * commands, counting the running one; further commands are rejected with a
+ * {@link PortfolioBusyException} instead of piling up waiting callers.
+ *
+ * Reads and portfolio creation do not go through a lane. The portfolio version is
+ * the backstop for writes made outside the lanes, e.g. by another instance.
+ */
+@Service
+@Primary
+public class PortfolioCommandDispatcher implements StockTradingUseCase, PortfolioManagementUseCase {
+
+    private final StockPricePort stockPricePort;
+    private final TradeExecutor tradeExecutor;
+    private final PortfolioManagementUseCase portfolioManagementUseCase;
+    private final int maxQueued;
+    private final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PortfolioCommandDispatcher(
+            StockPricePort stockPricePort,
+            TradeExecutor tradeExecutor,
+            @Qualifier("portfolioManagementService") PortfolioManagementUseCase portfolioManagementUseCase,
+            @Value("${portfolio.commands.max-queued:32}") int maxQueued) {
+        this.stockPricePort = stockPricePort;
+        this.tradeExecutor = tradeExecutor;
+        this.portfolioManagementUseCase = portfolioManagementUseCase;
+        this.maxQueued = maxQueued;
+    }
+
+    @Override
+    public void buyStock(String portfolioId, String ticker, int quantity) {
+        BigDecimal price = stockPricePort.fetchStockPrice(ticker, PriceRequestPriority.TRADE);
+        dispatch(portfolioId, () -> {
+            tradeExecutor.buy(portfolioId, ticker, quantity, price);
+            return null;
+        });
+    }
+
+    @Override
+    public SellResult sellStock(String portfolioId, String ticker, int quantity) {
+        return sellStock(portfolioId, ticker, quantity, List.of());
+    }
+
+    @Override
+    public SellResult sellStock(String portfolioId, String ticker, int quantity, List<String> lotIds) {
+        BigDecimal price = stockPricePort.fetchStockPrice(ticker, PriceRequestPriority.TRADE);
+        return dispatch(portfolioId, () -> tradeExecutor.sell(portfolioId, ticker, quantity, lotIds, price));
+    }
+
+    @Override
+    public Portfolio createPortfolio(String ownerName) {
+        return portfolioManagementUseCase.createPortfolio(ownerName);
+    }
+
+    @Override
+    public Portfolio createPortfolio(String ownerName, CostBasisMethod costBasisMethod) {
+        return portfolioManagementUseCase.createPortfolio(ownerName, costBasisMethod);
+    }
+
+    @Override
+    public Portfolio getPortfolio(String id) {
+        return portfolioManagementUseCase.getPortfolio(id);
+    }
+
+    @Override
+    public void deposit(String portfolioId, BigDecimal amount) {
+        dispatch(portfolioId, () -> {
+            portfolioManagementUseCase.deposit(portfolioId, amount);
+            return null;
+        });
+    }
+
+    @Override
+    public void withdraw(String portfolioId, BigDecimal amount) {
+        dispatch(portfolioId, () -> {
+            portfolioManagementUseCase.withdraw(portfolioId, amount);
+            return null;
+        });
+    }
+
+    @Override
+    public void changeCostBasisMethod(String portfolioId, CostBasisMethod costBasisMethod) {
+        dispatch(portfolioId, () -> {
+            portfolioManagementUseCase.changeCostBasisMethod(portfolioId, costBasisMethod);
+            return null;
+        });
+    }
+
+    /**
+     * Number of portfolios with commands queued or running.
+     */
+    public int activeLanes() {
+        return lanes.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Appends the command to the portfolio's lane and waits for it to run.
+     * @throws PortfolioBusyException if the lane is full; the command was not queued
+     */
+    private <T> T dispatch(String portfolioId, Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Lane lane = lanes.compute(portfolioId, (id, current) -> {
+            if (current != null && current.queued() >= maxQueued) {
+                throw new PortfolioBusyException("Too many commands queued for portfolio: " + portfolioId);
+            }
+            CompletableFuture<Void> previous = current != null ? current.tail() : CompletableFuture.completedFuture(null);
+            int queued = current != null ? current.queued() : 0;
+            return new Lane(previous.thenRunAsync(() -> run(command, result), executor), queued + 1);
+        });
+        // The lane is dropped once its last command has run, unless another one was queued meanwhile
+        lane.tail().whenComplete((ignored, error) -> {
+            lanes.computeIfPresent(portfolioId, (id, current) ->
+                    current.queued() == 1 ? null : new Lane(current.tail(), current.queued() - 1));
+            if (error != null) {
+                result.completeExceptionally(error); // e.g. rejected because the dispatcher is shutting down
+            }
+        });
+        return await(result);
+    }
+
+    // Never lets the command's failure reach the lane, so the next command always runs
+    private static <T> void run(Supplier<T> command, CompletableFuture<T> result) {
+        try {
+            result.complete(command.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * The last command queued for a portfolio and the number of its commands not yet finished.
+     */
+    private record Lane(CompletableFuture<Void> tail, int queued) {
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for portfolio command", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.alfredorueda.portfolio.application.port.in.PortfolioManagementUseCase
 import com.alfredorueda.portfolio.application.port.out.LoadPortfolioPort;
 import com.alfredorueda.portfolio.application.port.out.SavePortfolioPort;
 import com.alfredorueda.portfolio.application.port.out.TransactionPort;
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
 import com.alfredorueda.portfolio.domain.Portfolio;
 import com.alfredorueda.portfolio.domain.Transaction;
 import com.alfredorueda.portfolio.domain.exception.PortfolioNotFoundException;
@@ -38,9 +39,22 @@ public class PortfolioManagementService implements PortfolioManagementUseCase {
         return savePortfolioPort.save(portfolio);
     }
     
+    @Override
+    @Transactional
+    public Portfolio createPortfolio(String ownerName, CostBasisMethod costBasisMethod) {
+        Portfolio portfolio = Portfolio.create(ownerName, costBasisMethod);
+        return savePortfolioPort.save(portfolio);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Portfolio getPortfolio(String id) {
+        return loadPortfolioPort.findAggregateById(id)
+                .orElseThrow(() -> new PortfolioNotFoundException("Portfolio not found with id: " + id));
+    }
+    
+    // Balance and settings changes do not touch the holdings, so only the portfolio row is loaded
+    private Portfolio getPortfolioRoot(String id) {
         return loadPortfolioPort.findById(id)
                 .orElseThrow(() -> new PortfolioNotFoundException("Portfolio not found with id: " + id));
     }
@@ -48,7 +62,7 @@ public class PortfolioManagementService implements PortfolioManagementUseCase {
     @Override
     @Transactional
     public void deposit(String portfolioId, BigDecimal amount) {
-        Portfolio portfolio = getPortfolio(portfolioId);
+        Portfolio portfolio = getPortfolioRoot(portfolioId);
         portfolio.deposit(amount);
         savePortfolioPort.save(portfolio);
         
@@ -59,11 +73,19 @@ public class PortfolioManagementService implements PortfolioManagementUseCase {
     @Override
     @Transactional
     public void withdraw(String portfolioId, BigDecimal amount) {
-        Portfolio portfolio = getPortfolio(portfolioId);
+        Portfolio portfolio = getPortfolioRoot(portfolioId);
         portfolio.withdraw(amount);
         savePortfolioPort.save(portfolio);
         
         Transaction transaction = Transaction.createWithdrawal(portfolioId, amount);
         transactionPort.save(transaction);
     }
+    
+    @Override
+    @Transactional
+    public void changeCostBasisMethod(String portfolioId, CostBasisMethod costBasisMethod) {
+        Portfolio portfolio = getPortfolioRoot(portfolioId);
+        portfolio.changeCostBasisMethod(costBasisMethod);
+        savePortfolioPort.save(portfolio);
+    }
 }
\ No newline at end of file
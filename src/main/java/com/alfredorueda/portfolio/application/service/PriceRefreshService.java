@@ -0,0 +1,50 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.application.port.in.PriceRefreshUseCase;
+import com.alfredorueda.portfolio.application.port.out.HeldTickersPort;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service responsible for refreshing the prices of held stocks in the background,
+ * so valuations are served from the cache instead of waiting on the provider.
+ */
+@Service
+public class PriceRefreshService implements PriceRefreshUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceRefreshService.class);
+
+    private final HeldTickersPort heldTickersPort;
+    private final StockPricePort stockPricePort;
+
+    public PriceRefreshService(HeldTickersPort heldTickersPort, StockPricePort stockPricePort) {
+        this.heldTickersPort = heldTickersPort;
+        this.stockPricePort = stockPricePort;
+    }
+
+    @Override
+    public BatchPriceResult refreshHeldPrices(int budget) {
+        if (budget <= 0) {
+            return new BatchPriceResult(Map.of(), Map.of());
+        }
+        List<String> heldTickers = heldTickersPort.findHeldTickersByPopularity();
+        if (heldTickers.isEmpty()) {
+            return new BatchPriceResult(Map.of(), Map.of());
+        }
+
+        BatchPriceResult result = stockPricePort.refreshStockPrices(
+                heldTickers, budget, PriceRequestPriority.BACKGROUND);
+        if (!result.failures().isEmpty()) {
+            log.warn("Could not refresh prices for {}", result.failures().keySet());
+        }
+        log.debug("Refreshed {} of {} held tickers", result.prices().size(), heldTickers.size());
+        return result;
+    }
+}
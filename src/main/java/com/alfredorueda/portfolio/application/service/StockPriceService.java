@@ -1,10 +1,13 @@
 package com.alfredorueda.portfolio.application.service;
 
 import com.alfredorueda.portfolio.application.port.in.StockPriceUseCase;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
 import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 @Service
 public class StockPriceService implements StockPriceUseCase {
@@ -17,6 +20,16 @@ public class StockPriceService implements StockPriceUseCase {
     
     @Override
     public BigDecimal getCurrentPrice(String ticker) {
-        return stockPricePort.fetchStockPrice(ticker);
+        return stockPricePort.fetchStockPrice(ticker, PriceRequestPriority.VALUATION);
+    }
+    
+    @Override
+    public BatchPriceResult getCurrentPrices(Collection<String> tickers) {
+        return stockPricePort.fetchStockPrices(tickers, PriceRequestPriority.VALUATION);
+    }
+    
+    @Override
+    public BatchPriceResult getStreamingPrices(Collection<String> tickers) {
+        return stockPricePort.fetchStockPrices(tickers, PriceRequestPriority.STREAMING);
     }
 }
@@ -0,0 +1,69 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.application.port.out.LoadPortfolioForTradePort;
+import com.alfredorueda.portfolio.application.port.out.SavePortfolioPort;
+import com.alfredorueda.portfolio.application.port.out.TransactionPort;
+import com.alfredorueda.portfolio.domain.Portfolio;
+import com.alfredorueda.portfolio.domain.SellResult;
+import com.alfredorueda.portfolio.domain.Transaction;
+import com.alfredorueda.portfolio.domain.exception.PortfolioNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Service that books trades at a given price, each in its own transaction
+ */
+@Service
+public class TradeExecutionService implements TradeExecutor {
+    
+    private final LoadPortfolioForTradePort loadPortfolioForTradePort;
+    private final SavePortfolioPort savePortfolioPort;
+    private final TransactionPort transactionPort;
+    
+    public TradeExecutionService(
+            LoadPortfolioForTradePort loadPortfolioForTradePort,
+            SavePortfolioPort savePortfolioPort,
+            TransactionPort transactionPort) {
+        this.loadPortfolioForTradePort = loadPortfolioForTradePort;
+        this.savePortfolioPort = savePortfolioPort;
+        this.transactionPort = transactionPort;
+    }
+    
+    // Trades load only the holding of the traded ticker, so their cost does not grow with the portfolio
+    private Portfolio getPortfolio(String id, String ticker) {
+        return loadPortfolioForTradePort.findByIdForTrade(id, ticker)
+                .orElseThrow(() -> new PortfolioNotFoundException("Portfolio not found with id: " + id));
+    }
+    
+    @Override
+    @Transactional
+    public void buy(String portfolioId, String ticker, int quantity, BigDecimal price) {
+        // Update portfolio
+        Portfolio portfolio = getPortfolio(portfolioId, ticker);
+        portfolio.buy(ticker, quantity, price);
+        savePortfolioPort.save(portfolio);
+        
+        // Record transaction
+        Transaction transaction = Transaction.createPurchase(portfolioId, ticker, quantity, price);
+        transactionPort.save(transaction);
+    }
+    
+    @Override
+    @Transactional
+    public SellResult sell(String portfolioId, String ticker, int quantity, List<String> lotIds, BigDecimal price) {
+        // Update portfolio
+        Portfolio portfolio = getPortfolio(portfolioId, ticker);
+        SellResult result = portfolio.sell(ticker, quantity, price, lotIds);
+        savePortfolioPort.save(portfolio);
+        
+        // Record transaction
+        Transaction transaction = Transaction.createSale(
+                portfolioId, ticker, quantity, price, result.proceeds(), result.profit());
+        transactionPort.save(transaction);
+        
+        return result;
+    }
+}
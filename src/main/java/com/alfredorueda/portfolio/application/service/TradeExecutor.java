@@ -0,0 +1,15 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.domain.SellResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Applies a trade to a portfolio at a price the caller has already obtained,
+ * so the transaction never spans the call to the price provider.
+ */
+interface TradeExecutor {
+    void buy(String portfolioId, String ticker, int quantity, BigDecimal price);
+    SellResult sell(String portfolioId, String ticker, int quantity, List<String> lotIds, BigDecimal price);
+}
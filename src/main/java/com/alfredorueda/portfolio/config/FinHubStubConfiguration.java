@@ -0,0 +1,24 @@
+package com.alfredorueda.portfolio.config;
+
+import com.alfredorueda.portfolio.adapters.out.finhub.stub.FinHubStubProperties;
+import com.alfredorueda.portfolio.adapters.out.finhub.stub.FinHubStubServer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts the local FinHub stand-in server when {@code finhub.stub.enabled=true}.
+ * Point {@code finhub.api.base-url} at it to run the application without network access
+ * (see the {@code offline} profile).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "finhub.stub", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(FinHubStubProperties.class)
+public class FinHubStubConfiguration {
+
+    @Bean
+    public FinHubStubServer finHubStubServer(FinHubStubProperties finHubStubProperties) {
+        return new FinHubStubServer(finHubStubProperties);
+    }
+}
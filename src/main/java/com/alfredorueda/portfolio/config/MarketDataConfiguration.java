@@ -0,0 +1,31 @@
+package com.alfredorueda.portfolio.config;
+
+import com.alfredorueda.portfolio.adapters.in.feed.MarketDataProperties;
+import com.alfredorueda.portfolio.adapters.in.feed.ReplayMarketDataFeed;
+import com.alfredorueda.portfolio.application.port.in.MarketDataIngestionUseCase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Wires the tick feeds that push market data into the application.
+ */
+@Configuration
+public class MarketDataConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "market-data.replay", name = "file")
+    public ReplayMarketDataFeed replayMarketDataFeed(
+            MarketDataIngestionUseCase marketDataIngestionUseCase,
+            MarketDataProperties marketDataProperties) {
+        MarketDataProperties.Replay replay = marketDataProperties.replay();
+        return new ReplayMarketDataFeed(
+                marketDataIngestionUseCase,
+                replay.file(),
+                replay.speed(),
+                replay.loop(),
+                Clock.systemUTC());
+    }
+}
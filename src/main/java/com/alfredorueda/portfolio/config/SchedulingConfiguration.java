@@ -0,0 +1,12 @@
+package com.alfredorueda.portfolio.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the price stream refresh.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
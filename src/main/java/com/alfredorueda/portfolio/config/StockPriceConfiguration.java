@@ -0,0 +1,139 @@
+package com.alfredorueda.portfolio.config;
+
+import com.alfredorueda.portfolio.adapters.in.feed.MarketDataProperties;
+import com.alfredorueda.portfolio.adapters.out.finhub.FinHubClient;
+import com.alfredorueda.portfolio.adapters.out.finhub.FinHubProperties;
+import com.alfredorueda.portfolio.adapters.out.price.CachingStockPriceAdapter;
+import com.alfredorueda.portfolio.adapters.out.price.HedgingProperties;
+import com.alfredorueda.portfolio.adapters.out.price.HedgingStockPriceAdapter;
+import com.alfredorueda.portfolio.adapters.out.price.InMemoryPriceBook;
+import com.alfredorueda.portfolio.adapters.out.price.LastKnownPriceStore;
+import com.alfredorueda.portfolio.adapters.out.price.PriceBookStockPriceAdapter;
+import com.alfredorueda.portfolio.adapters.out.price.PriceCacheProperties;
+import com.alfredorueda.portfolio.adapters.out.price.PriceSnapshotProperties;
+import com.alfredorueda.portfolio.adapters.out.price.PriceSnapshotStore;
+import com.alfredorueda.portfolio.adapters.out.simulation.MarketSimulatorProperties;
+import com.alfredorueda.portfolio.adapters.out.simulation.SimulatedMarketPriceAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.util.concurrent.Executors;
+
+/**
+ * Assembles the chain of StockPricePort implementations used by the application services.
+ * The outermost decorator is marked as {@link Primary} so it is the one injected wherever
+ * a StockPricePort is required.
+ *
+ * Chain: streamed price book -> cache -> hedging composite -> FinHub client(s)
+ *
+ * The hedging composite races the FinHub client against a second FinHub-compatible
+ * provider when {@code finhub.api.secondary.base-url} is set, and falls back to the
+ * last known prices. When {@code price.snapshot.file} is set, the last known prices are
+ * persisted and restored across restarts, and restored prices also seed the cache.
+ *
+ * With {@code finhub.api.test-mode=true} the FinHub client is replaced by a seeded
+ * market simulator, so the rest of the chain runs against moving, reproducible prices.
+ */
+@Configuration
+@EnableConfigurationProperties({
+        FinHubProperties.class,
+        PriceCacheProperties.class,
+        HedgingProperties.class,
+        PriceSnapshotProperties.class,
+        MarketDataProperties.class,
+        MarketSimulatorProperties.class})
+public class StockPriceConfiguration {
+
+    @Bean
+    @Primary
+    public PriceBookStockPriceAdapter priceBookStockPriceAdapter(
+            InMemoryPriceBook priceBook,
+            CachingStockPriceAdapter cachingStockPriceAdapter,
+            MarketDataProperties marketDataProperties) {
+        return new PriceBookStockPriceAdapter(
+                priceBook,
+                cachingStockPriceAdapter,
+                marketDataProperties.maxQuoteAge(),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    public CachingStockPriceAdapter cachingStockPriceAdapter(
+            HedgingStockPriceAdapter hedgingStockPriceAdapter,
+            PriceCacheProperties priceCacheProperties) {
+        return new CachingStockPriceAdapter(
+                hedgingStockPriceAdapter,
+                priceCacheProperties,
+                Clock.systemUTC(),
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public HedgingStockPriceAdapter hedgingStockPriceAdapter(
+            @Qualifier("finHubClient") FinHubClient finHubClient,
+            @Qualifier("secondaryFinHubClient") ObjectProvider<FinHubClient> secondaryFinHubClient,
+            ObjectProvider<SimulatedMarketPriceAdapter> simulatedMarket,
+            LastKnownPriceStore lastKnownPriceStore,
+            HedgingProperties hedgingProperties) {
+        SimulatedMarketPriceAdapter simulator = simulatedMarket.getIfAvailable();
+        HedgingStockPriceAdapter.Provider primary = simulator != null
+                ? new HedgingStockPriceAdapter.Provider("simulator", simulator)
+                : new HedgingStockPriceAdapter.Provider("finhub", finHubClient);
+        FinHubClient secondaryClient = simulator != null ? null : secondaryFinHubClient.getIfAvailable();
+        HedgingStockPriceAdapter.Provider secondary = secondaryClient != null
+                ? new HedgingStockPriceAdapter.Provider("finhub-secondary", secondaryClient)
+                : null;
+
+        return new HedgingStockPriceAdapter(
+                primary,
+                secondary,
+                lastKnownPriceStore,
+                hedgingProperties,
+                Clock.systemUTC(),
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("price-hedge").daemon().factory()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "price.snapshot", name = "file")
+    public PriceSnapshotStore priceSnapshotStore(
+            LastKnownPriceStore lastKnownPriceStore,
+            CachingStockPriceAdapter cachingStockPriceAdapter,
+            PriceSnapshotProperties priceSnapshotProperties) {
+        return new PriceSnapshotStore(
+                lastKnownPriceStore,
+                priceSnapshotProperties,
+                Clock.systemUTC(),
+                cachingStockPriceAdapter::prime);
+    }
+
+    @Bean
+    public FinHubClient finHubClient(
+            ObjectMapper objectMapper,
+            FinHubProperties finHubProperties,
+            LastKnownPriceStore lastKnownPriceStore) {
+        return new FinHubClient("finhub", objectMapper, finHubProperties, lastKnownPriceStore);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "finhub.api.secondary", name = "base-url")
+    public FinHubClient secondaryFinHubClient(
+            ObjectMapper objectMapper,
+            FinHubProperties finHubProperties,
+            LastKnownPriceStore lastKnownPriceStore) {
+        return new FinHubClient("finhub-secondary", objectMapper, finHubProperties.forSecondary(), lastKnownPriceStore);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "finhub.api", name = "test-mode", havingValue = "true")
+    public SimulatedMarketPriceAdapter simulatedMarketPriceAdapter(MarketSimulatorProperties marketSimulatorProperties) {
+        return new SimulatedMarketPriceAdapter(marketSimulatorProperties, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,34 @@
+package com.alfredorueda.portfolio.domain;
+
+import com.alfredorueda.portfolio.domain.exception.InvalidLotSelectionException;
+
+import java.util.List;
+
+/**
+ * The accounting method a portfolio uses to decide which shares a sale takes.
+ */
+public enum CostBasisMethod {
+    FIFO,
+    LIFO,
+    HIFO,
+    AVERAGE_COST,
+    SPECIFIC_LOT;
+
+    /**
+     * The strategy for one sale. Lots named by the investor take precedence over the
+     * portfolio's method; a portfolio using specific lot identification requires them.
+     */
+    public CostBasisStrategy strategy(List<String> lotIds) {
+        if (!lotIds.isEmpty()) {
+            return CostBasisStrategy.specificLots(lotIds);
+        }
+        return switch (this) {
+            case FIFO -> CostBasisStrategy.firstInFirstOut();
+            case LIFO -> CostBasisStrategy.lastInFirstOut();
+            case HIFO -> CostBasisStrategy.highestCostFirst();
+            case AVERAGE_COST -> CostBasisStrategy.averageCost();
+            case SPECIFIC_LOT -> throw new InvalidLotSelectionException(
+                    "This portfolio sells specific lots; the lots to sell are required");
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.alfredorueda.portfolio.domain;
+
+import com.alfredorueda.portfolio.domain.exception.InvalidLotSelectionException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Decides which lots a sale takes its shares from, and so the cost basis of the sale.
+ * 
+ * Tax rules allow several accounting methods: the oldest shares first (FIFO), the newest
+ * first (LIFO), the most expensive first (HIFO), the average cost of all shares, or lots
+ * named by the investor. Each method is a strategy over the holding's {@link OpenLots}.
+ */
+@FunctionalInterface
+public interface CostBasisStrategy {
+
+    /**
+     * Takes {@code quantity} shares out of the open lots.
+     * The holding has already checked that it holds at least that many shares.
+     * @return the cost basis of the shares sold
+     */
+    Money sell(OpenLots lots, int quantity);
+
+    static CostBasisStrategy firstInFirstOut() {
+        return (lots, quantity) -> takeInOrder(lots, quantity, OpenLots::oldest);
+    }
+
+    static CostBasisStrategy lastInFirstOut() {
+        return (lots, quantity) -> takeInOrder(lots, quantity, OpenLots::newest);
+    }
+
+    static CostBasisStrategy highestCostFirst() {
+        return (lots, quantity) -> takeInOrder(lots, quantity, OpenLots::highestCost);
+    }
+
+    /**
+     * Every share sold costs the average of all shares held. Shares still leave the
+     * oldest lots first, so the lots keep track of how many shares remain, and the lots
+     * left are re-priced at the average.
+     */
+    static CostBasisStrategy averageCost() {
+        return OpenLots::sellAtAverageCost;
+    }
+
+    /**
+     * Takes shares from the given lots in the given order. The selection is checked
+     * before any lot is touched, so an invalid selection leaves the holding unchanged.
+     */
+    static CostBasisStrategy specificLots(List<String> lotIds) {
+        Set<String> selected = new LinkedHashSet<>(lotIds);
+        return (lots, quantity) -> {
+            int available = 0;
+            for (String lotId : selected) {
+                Lot lot = lots.find(lotId).orElseThrow(() ->
+                        new InvalidLotSelectionException("No open lot with id " + lotId + " in this holding"));
+                available += lot.getRemaining();
+            }
+            if (available < quantity) {
+                throw new InvalidLotSelectionException(
+                        "Selected lots hold " + available + " shares, " + quantity + " requested");
+            }
+
+            Money costBasis = Money.ZERO;
+            int remainingToSell = quantity;
+            for (String lotId : selected) {
+                if (remainingToSell == 0) {
+                    break;
+                }
+                Lot lot = lots.find(lotId).orElseThrow();
+                int sharesSoldFromLot = Math.min(lot.getRemaining(), remainingToSell);
+                costBasis = costBasis.plus(lots.take(lot, sharesSoldFromLot));
+                remainingToSell -= sharesSoldFromLot;
+            }
+            return costBasis;
+        };
+    }
+
+    private static Money takeInOrder(OpenLots lots, int quantity, Function<OpenLots, Lot> next) {
+        Money costBasis = Money.ZERO;
+        int remainingToSell = quantity;
+        while (remainingToSell > 0) {
+            Lot lot = next.apply(lots);
+            int sharesSoldFromLot = Math.min(lot.getRemaining(), remainingToSell);
+            costBasis = costBasis.plus(lots.take(lot, sharesSoldFromLot));
+            remainingToSell -= sharesSoldFromLot;
+        }
+        return costBasis;
+    }
+}
@@ -5,8 +5,13 @@ import com.alfredorueda.portfolio.domain.exception.InvalidQuantityException;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
 
 import static jakarta.persistence.CascadeType.ALL;
 
@@ -15,16 +20,19 @@ import static jakarta.persistence.CascadeType.ALL;
  * 
  * In DDD terms, this is an Entity that belongs to the Portfolio aggregate.
  * It tracks all lots (purchases) of a particular stock and handles the selling
- * process using the FIFO (First-In-First-Out) accounting method.
+ * process using a pluggable cost basis method, FIFO (First-In-First-Out) by default.
  * 
  * Think of a Holding as your collection of shares for a single company, like Apple or Microsoft.
  * Each time you buy shares of this company, a new "Lot" is created to track that specific purchase.
- * When you sell shares, the oldest ones are sold first (FIFO method).
+ * When you sell shares, the oldest ones are sold first unless the portfolio uses
+ * another {@link CostBasisMethod}.
  * 
  * The Holding enforces business rules such as preventing the sale of more shares than you own.
  */
 @Entity
 public class Holding {
+    private static final int NOT_COUNTED = -1;
+
     @Id 
     private String id;
 
@@ -53,12 +61,53 @@ public class Holding {
      *
      * This implementation represents a well-balanced approach that prioritizes both 
      * domain model elegance and persistence efficiency.
+     * 
+     * Lot ids are time-ordered, so they break ties between lots bought on the same day
+     * in purchase order.
      */
     @OneToMany(cascade = ALL, orphanRemoval = true)
     @JoinColumn(name = "holding_id")
-    @OrderBy("purchasedAt ASC")
+    @OrderBy("purchasedAt ASC, id ASC")
     private List<Lot> lots = new ArrayList<>();
 
+    /**
+     * Running totals over the open lots, kept in step by {@link #buy} and {@link #sell}
+     * so they can be read without walking the lots. Rows written before these columns
+     * existed have them unset; such holdings recompute them from their lots when loaded.
+     */
+    private Integer shareCount = 0;
+    @Column(precision = 19, scale = Money.SCALE)
+    private Money totalCostBasis = Money.ZERO;
+
+    /**
+     * In-memory indexes over the lots, built on first use after the holding is loaded and
+     * kept up to date from then on. They are not persisted, so a holding loaded for a single
+     * sale pays for building the index that sale needs; the O(log n) per lot picked only
+     * holds for further sales on the same instance.
+     * 
+     * Sales do not remove a lot as soon as it is exhausted. Exhausted lots are dropped in
+     * one go once they make up half of the list, which deletes exactly those rows and keeps
+     * the cost amortized constant per lot. Exhausted lots are stored until then, so a loaded
+     * holding counts the ones it was loaded with before its first sale. Until they are
+     * dropped every index skips them:
+     * - head: position of the oldest lot that may still have shares (FIFO)
+     * - the end of the list: exhausted lots there are removed right away (LIFO)
+     * - byCostDescending: heap of lots by unit price (HIFO), exhausted lots are popped lazily
+     * - byId: lots by id (specific lot identification)
+     */
+    @Transient
+    private int head;
+    @Transient
+    private int exhausted = NOT_COUNTED;
+    @Transient
+    private PriorityQueue<Lot> byCostDescending;
+    @Transient
+    private Map<String, Lot> byId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portfolio_id")
+    private Portfolio portfolio;
+
     protected Holding() {}
     
     public Holding(String id, String ticker) {
@@ -67,50 +116,75 @@ public class Holding {
     }
     
     public static Holding create(String ticker) {
-        return new Holding(UUID.randomUUID().toString(), ticker);
+        return new Holding(Ids.next(), ticker);
+    }
+    
+    void attachTo(Portfolio portfolio) {
+        this.portfolio = portfolio;
     }
     
     public void buy(int quantity, BigDecimal unitPrice) {
-        Lot lot = new Lot(UUID.randomUUID().toString(), quantity, unitPrice);
+        buy(quantity, Money.of(unitPrice));
+    }
+    
+    public void buy(int quantity, Money unitPrice) {
+        Lot lot = new Lot(Ids.next(), quantity, unitPrice);
         lots.add(lot);
+        if (byCostDescending != null) {
+            byCostDescending.add(lot);
+        }
+        if (byId != null) {
+            byId.put(lot.getId(), lot);
+        }
+        shareCount += quantity;
+        totalCostBasis = totalCostBasis.plus(unitPrice.times(quantity));
     }
     
     public SellResult sell(int quantity, BigDecimal sellPrice) {
-        if (getTotalShares() < quantity) {
-            throw new InvalidQuantityException("Not enough shares to sell. Available: " + getTotalShares() + ", Requested: " + quantity);
+        return sell(quantity, sellPrice, CostBasisStrategy.firstInFirstOut());
+    }
+    
+    public SellResult sell(int quantity, BigDecimal sellPrice, CostBasisStrategy strategy) {
+        if (shareCount < quantity) {
+            throw new InvalidQuantityException("Not enough shares to sell. Available: " + shareCount + ", Requested: " + quantity);
         }
 
-        int remainingToSell = quantity;
-        BigDecimal costBasis = BigDecimal.ZERO;
-        
-        for (Lot lot : lots) {
-            if (remainingToSell <= 0) break;
-            
-            int sharesSoldFromLot = Math.min(lot.getRemaining(), remainingToSell);
-            BigDecimal lotCostBasis = lot.getUnitPrice().multiply(BigDecimal.valueOf(sharesSoldFromLot));
-            
-            costBasis = costBasis.add(lotCostBasis);
-            lot.reduce(sharesSoldFromLot);
-            remainingToSell -= sharesSoldFromLot;
-        }
+        countExhaustedLots();
+        Money costBasis = strategy.sell(new LotIndex(), quantity);
         
-        // Remove empty lots
-        lots.removeIf(Lot::isEmpty);
+        compactIfMostlyExhausted();
+        shareCount -= quantity;
+        totalCostBasis = totalCostBasis.minus(costBasis);
         
-        BigDecimal proceeds = sellPrice.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal profit = proceeds.subtract(costBasis);
+        Money proceeds = Money.of(sellPrice).times(quantity);
+        Money profit = proceeds.minus(costBasis);
         
-        return new SellResult(proceeds, costBasis, profit);
+        return new SellResult(proceeds.toBigDecimal(), costBasis.toBigDecimal(), profit.toBigDecimal());
     }
     
     public int getTotalShares() {
-        return lots.stream()
-                .mapToInt(Lot::getRemaining)
-                .sum();
+        return shareCount;
+    }
+    
+    /**
+     * What was paid for the shares still held.
+     */
+    public BigDecimal getTotalCostBasis() {
+        return totalCostBasis.toBigDecimal();
+    }
+    
+    /**
+     * Average price paid per share still held, or zero when no shares are held.
+     */
+    public BigDecimal getAverageCost() {
+        if (shareCount == 0) {
+            return Money.ZERO.toBigDecimal();
+        }
+        return totalCostBasis.dividedBy(shareCount).toBigDecimal();
     }
     
     public boolean isEmpty() {
-        return lots.isEmpty() || getTotalShares() == 0;
+        return shareCount == 0;
     }
     
     public String getId() {
@@ -121,9 +195,151 @@ public class Holding {
         return ticker;
     }
     
+    /**
+     * The lots that still have shares, oldest first.
+     */
     public List<Lot> getLots() {
-        return lots;
+        return lots.subList(advanceHead(), lots.size()).stream()
+                .filter(lot -> !lot.isEmpty())
+                .toList();
+    }
+
+    private int advanceHead() {
+        while (head < lots.size() && lots.get(head).isEmpty()) {
+            head++;
+        }
+        return head;
     }
 
-    // TODO: @Override equals and hashCode methods for proper entity comparison
+    private void countExhaustedLots() {
+        if (exhausted == NOT_COUNTED) {
+            exhausted = (int) lots.stream().filter(Lot::isEmpty).count();
+        }
+    }
+
+    private void compactIfMostlyExhausted() {
+        if (exhausted > 0 && exhausted * 2 >= lots.size()) {
+            lots.removeIf(Lot::isEmpty);
+            exhausted = 0;
+            head = 0;
+            byId = null;
+        }
+    }
+
+    /**
+     * The open lots of this holding as seen by cost basis strategies.
+     */
+    private final class LotIndex implements OpenLots {
+
+        @Override
+        public Lot oldest() {
+            return lots.get(advanceHead());
+        }
+
+        @Override
+        public Lot newest() {
+            int last = lots.size() - 1;
+            while (lots.get(last).isEmpty()) {
+                lots.remove(last--);
+                exhausted--;
+            }
+            head = Math.min(head, lots.size());
+            return lots.get(last);
+        }
+
+        @Override
+        public Lot highestCost() {
+            if (byCostDescending == null) {
+                byCostDescending = new PriorityQueue<>(Comparator
+                        .comparing(Lot::unitPrice, Comparator.reverseOrder())
+                        .thenComparing(Lot::getPurchasedAt));
+                for (Lot lot : lots) {
+                    if (!lot.isEmpty()) {
+                        byCostDescending.add(lot);
+                    }
+                }
+            }
+            while (byCostDescending.peek().isEmpty()) {
+                byCostDescending.poll();
+            }
+            return byCostDescending.peek();
+        }
+
+        @Override
+        public Optional<Lot> find(String lotId) {
+            if (byId == null) {
+                byId = new HashMap<>();
+                for (Lot lot : lots) {
+                    byId.put(lot.getId(), lot);
+                }
+            }
+            return Optional.ofNullable(byId.get(lotId)).filter(lot -> !lot.isEmpty());
+        }
+
+        @Override
+        public Money sellAtAverageCost(int quantity) {
+            Money averageCost = totalCostBasis.dividedBy(shareCount);
+            int remainingToSell = quantity;
+            while (remainingToSell > 0) {
+                Lot lot = oldest();
+                int sharesSoldFromLot = Math.min(lot.getRemaining(), remainingToSell);
+                take(lot, sharesSoldFromLot);
+                remainingToSell -= sharesSoldFromLot;
+            }
+
+            boolean repriced = false;
+            for (int i = advanceHead(); i < lots.size(); i++) {
+                repriced |= lots.get(i).repriceAt(averageCost);
+            }
+            if (repriced) {
+                byCostDescending = null;
+            }
+            // Whatever rounding the average carries is settled on the shares sold
+            return totalCostBasis.minus(averageCost.times(shareCount - quantity));
+        }
+
+        @Override
+        public Money take(Lot lot, int quantity) {
+            lot.reduce(quantity);
+            if (lot.isEmpty()) {
+                exhausted++;
+            }
+            return lot.unitPrice().times(quantity);
+        }
+    }
+
+    @PostLoad
+    void initializeTotals() {
+        if (shareCount == null || totalCostBasis == null) {
+            int shares = 0;
+            Money cost = Money.ZERO;
+            for (Lot lot : lots) {
+                shares += lot.getRemaining();
+                cost = cost.plus(lot.unitPrice().times(lot.getRemaining()));
+            }
+            shareCount = shares;
+            totalCostBasis = cost;
+        }
+    }
+
+    /**
+     * Holdings are entities: two instances are the same holding when they have the same id.
+     * The id is assigned on creation and never changes, so the hash code is stable while the
+     * holding sits in the portfolio's set, before and after it is persisted.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Holding other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 }
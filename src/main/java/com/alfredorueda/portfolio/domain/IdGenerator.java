@@ -0,0 +1,12 @@
+package com.alfredorueda.portfolio.domain;
+
+/**
+ * Source of identifiers for new entities.
+ * 
+ * Entities get their id from {@link Ids} when they are created, before they are persisted,
+ * so the id generation strategy can be swapped without touching the entities.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    String nextId();
+}
@@ -0,0 +1,27 @@
+package com.alfredorueda.portfolio.domain;
+
+import java.util.Objects;
+
+/**
+ * Hands out ids to new entities, using time-ordered UUIDs unless another generator is installed.
+ */
+public final class Ids {
+
+    private static volatile IdGenerator generator = new UuidV7Generator();
+
+    private Ids() {}
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    /**
+     * Installs the generator used from now on.
+     * @return the generator it replaces
+     */
+    public static IdGenerator use(IdGenerator idGenerator) {
+        IdGenerator previous = generator;
+        generator = Objects.requireNonNull(idGenerator, "idGenerator");
+        return previous;
+    }
+}
@@ -2,6 +2,7 @@ package com.alfredorueda.portfolio.domain;
 
 import com.alfredorueda.portfolio.domain.exception.InvalidAmountException;
 import com.alfredorueda.portfolio.domain.exception.InvalidQuantityException;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import java.math.BigDecimal;
@@ -28,16 +29,21 @@ public class Lot {
     private String id;
     // TODO: Falta How many shares were initially purchased
     private int remaining;
-    private BigDecimal unitPrice;
+    @Column(precision = 19, scale = Money.SCALE)
+    private Money unitPrice;
     private LocalDate purchasedAt;
 
     protected Lot() {}
     
     public Lot(String id, int quantity, BigDecimal unitPrice) {
+        this(id, quantity, Money.of(unitPrice));
+    }
+    
+    public Lot(String id, int quantity, Money unitPrice) {
         if (quantity <= 0) {
             throw new InvalidQuantityException("Quantity must be positive");
         }
-        if (unitPrice.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!unitPrice.isPositive()) {
             throw new InvalidAmountException("Unit price must be positive");
         }
         
@@ -54,6 +60,18 @@ public class Lot {
         remaining -= qty;
     }
     
+    /**
+     * Changes the cost of the remaining shares, e.g. to the holding's average cost.
+     * @return whether the unit price changed
+     */
+    boolean repriceAt(Money newUnitPrice) {
+        if (isEmpty() || unitPrice.equals(newUnitPrice)) {
+            return false;
+        }
+        unitPrice = newUnitPrice;
+        return true;
+    }
+    
     public boolean isEmpty() {
         return remaining <= 0;
     }
@@ -68,6 +86,10 @@ public class Lot {
     }
     
     public BigDecimal getUnitPrice() {
+        return unitPrice.toBigDecimal();
+    }
+    
+    Money unitPrice() {
         return unitPrice;
     }
     
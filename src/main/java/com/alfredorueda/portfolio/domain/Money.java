@@ -0,0 +1,107 @@
+package com.alfredorueda.portfolio.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is an amount of cash held as a whole number of ten-thousandths (four decimal places).
+ * 
+ * In DDD terms, this is a Value Object: immutable and compared by value. Backing it with a
+ * {@code long} makes the arithmetic of trades exact and cheap: adding, subtracting and
+ * multiplying by a quantity are single machine operations instead of {@link BigDecimal}
+ * allocations. Every operation checks for overflow and throws {@link ArithmeticException}
+ * rather than wrapping around.
+ * 
+ * Amounts enter and leave the domain as {@link BigDecimal}: {@link #of(BigDecimal)} rounds to
+ * four decimal places (half-even) and {@link #toBigDecimal()} is exact.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 4;
+    public static final Money ZERO = new Money(0);
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofUnits(amount.setScale(SCALE, RoundingMode.HALF_EVEN).scaleByPowerOfTen(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Money times(int quantity) {
+        return ofUnits(Math.multiplyExact(units, quantity));
+    }
+
+    /**
+     * Divides into {@code divisor} equal parts, rounding half-even to the nearest unit.
+     */
+    public Money dividedBy(int divisor) {
+        long quotient = units / divisor;
+        long remainder = units % divisor;
+        if (remainder != 0) {
+            long twiceRemainder = Math.abs(remainder) * 2;
+            long absDivisor = Math.abs((long) divisor);
+            if (twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0)) {
+                quotient += Long.signum(units) * Integer.signum(divisor);
+            }
+        }
+        return ofUnits(quotient);
+    }
+
+    public boolean isPositive() {
+        return units > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return units < other.units;
+    }
+
+    /**
+     * The amount in ten-thousandths.
+     */
+    public long units() {
+        return units;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && units == other.units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.alfredorueda.portfolio.domain;
+
+import java.util.Optional;
+
+/**
+ * The open lots of a holding, as seen by a {@link CostBasisStrategy} while it sells shares.
+ * 
+ * The holding keeps an index for each way lots can be picked, so once an index is built
+ * every lookup costs O(1) or O(log n) rather than a scan or sort of all lots. Indexes live
+ * only as long as the loaded holding: the first HIFO or specific-lot sale after a load
+ * builds its index from every lot, O(n log n) and O(n) respectively, on top of the O(n)
+ * it took to load the lots. Only lots that still have shares are returned.
+ */
+public interface OpenLots {
+    /**
+     * The earliest purchased open lot.
+     */
+    Lot oldest();
+
+    /**
+     * The most recently purchased open lot.
+     */
+    Lot newest();
+
+    /**
+     * The open lot bought at the highest unit price; among equal prices the oldest.
+     */
+    Lot highestCost();
+
+    /**
+     * The open lot with the given id, if the holding has one.
+     */
+    Optional<Lot> find(String lotId);
+
+    /**
+     * Sells {@code quantity} shares at the holding's average cost per share, taking them
+     * out of the oldest lots. The lots still open are re-priced at that average, so they
+     * add up to the holding's remaining cost basis and later sales by any method agree with it.
+     * @return the cost basis of the shares sold
+     */
+    Money sellAtAverageCost(int quantity);
+
+    /**
+     * Sells {@code quantity} shares out of {@code lot}.
+     * @return the cost basis of those shares at the lot's unit price
+     */
+    Money take(Lot lot, int quantity);
+}
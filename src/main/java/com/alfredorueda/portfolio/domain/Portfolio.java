@@ -7,9 +7,15 @@ import com.alfredorueda.portfolio.domain.exception.InvalidQuantityException;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 
 import static jakarta.persistence.CascadeType.ALL;
 
@@ -32,46 +38,94 @@ import static jakarta.persistence.CascadeType.ALL;
 public class Portfolio {
     @Id 
     private String id;
+
+    /**
+     * Optimistic lock. Commands for a portfolio are already serialized in memory, so a
+     * conflict only surfaces when something writes it outside those lanes.
+     */
+    @Version
+    private Long version;
     
     private String ownerName;
-    private BigDecimal balance;
+    @Column(precision = 19, scale = Money.SCALE)
+    private Money balance;
     private LocalDate createdAt;
 
-    @OneToMany(cascade = ALL, orphanRemoval = true)
-    @JoinColumn(name = "portfolio_id")
+    @Enumerated(EnumType.STRING)
+    private CostBasisMethod costBasisMethod = CostBasisMethod.FIFO;
+
+    @OneToMany(mappedBy = "portfolio", cascade = ALL, orphanRemoval = true)
     private Set<Holding> holdings = new HashSet<>();
 
+    /**
+     * Holdings keyed by ticker, so trades find their holding without scanning the collection.
+     * It is not persisted: it is built from {@code holdings} on first use after the portfolio
+     * is created or loaded, and kept in step with it whenever a holding is added or removed.
+     */
+    @Transient
+    private Map<String, Holding> holdingsByTicker;
+
+    /**
+     * Set when the portfolio was loaded to trade a single ticker: the only ticker it can trade.
+     */
+    @Transient
+    private String tradableTicker;
+
+    /**
+     * Holdings opened and sold out on a portfolio loaded for a single trade. They are not added
+     * to or taken out of {@code holdings}, which would load every holding; whoever stores the
+     * portfolio inserts and deletes them.
+     */
+    @Transient
+    private List<Holding> openedHoldings = new ArrayList<>();
+    @Transient
+    private List<Holding> closedHoldings = new ArrayList<>();
+
     protected Portfolio() {}
     
     public Portfolio(String id, String ownerName) {
         this.id = id;
         this.ownerName = ownerName;
-        this.balance = BigDecimal.ZERO;
+        this.balance = Money.ZERO;
         this.createdAt = LocalDate.now();
     }
     
     public static Portfolio create(String ownerName) {
-        return new Portfolio(UUID.randomUUID().toString(), ownerName);
+        return new Portfolio(Ids.next(), ownerName);
+    }
+    
+    public static Portfolio create(String ownerName, CostBasisMethod costBasisMethod) {
+        Portfolio portfolio = create(ownerName);
+        portfolio.changeCostBasisMethod(costBasisMethod);
+        return portfolio;
+    }
+    
+    /**
+     * Selects how future sales pick the lots they sell; past sales are not restated.
+     */
+    public void changeCostBasisMethod(CostBasisMethod costBasisMethod) {
+        this.costBasisMethod = Objects.requireNonNull(costBasisMethod, "costBasisMethod");
     }
     
     public void deposit(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InsufficientFundsException("Deposit amount must be positive");
         }
-        this.balance = this.balance.add(amount);
+        this.balance = this.balance.plus(Money.of(amount));
     }
     
     public void withdraw(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidAmountException("Withdrawal amount must be positive");
         }
-        if (balance.compareTo(amount) < 0) {
+        Money withdrawal = Money.of(amount);
+        if (balance.isLessThan(withdrawal)) {
             throw new InsufficientFundsException("Insufficient funds for withdrawal");
         }
-        this.balance = this.balance.subtract(amount);
+        this.balance = this.balance.minus(withdrawal);
     }
 
-    // TODO: quantity and price as value object
+    // TODO: quantity as value object
     public void buy(String ticker, int quantity, BigDecimal price) {
         if (quantity <= 0) {
             throw new InvalidQuantityException("Quantity must be positive");
@@ -80,17 +134,26 @@ public class Portfolio {
             throw new InvalidAmountException("Price must be positive");
         }
         
-        BigDecimal totalCost = price.multiply(BigDecimal.valueOf(quantity));
-        if (balance.compareTo(totalCost) < 0) {
+        Money unitPrice = Money.of(price);
+        Money totalCost = unitPrice.times(quantity);
+        if (balance.isLessThan(totalCost)) {
             throw new InsufficientFundsException("Insufficient funds to buy " + quantity + " shares of " + ticker);
         }
         
         Holding holding = findOrCreateHolding(ticker);
-        holding.buy(quantity, price);
-        balance = balance.subtract(totalCost);
+        holding.buy(quantity, unitPrice);
+        balance = balance.minus(totalCost);
     }
     
     public SellResult sell(String ticker, int quantity, BigDecimal price) {
+        return sell(ticker, quantity, price, List.of());
+    }
+    
+    /**
+     * Sells shares using the portfolio's cost basis method, or exactly the given lots
+     * when the investor names them.
+     */
+    public SellResult sell(String ticker, int quantity, BigDecimal price, List<String> lotIds) {
         if (quantity <= 0) {
             throw new InvalidQuantityException("Quantity must be positive");
         }
@@ -98,30 +161,99 @@ public class Portfolio {
             throw new InvalidAmountException("Price must be positive");
         }
         
-        Holding holding = holdings.stream()
-                .filter(h -> h.getTicker().equals(ticker))
-                .findFirst()
+        Holding holding = findHolding(ticker)
                 .orElseThrow(() -> new HoldingNotFoundException("No holding found for ticker: " + ticker));
         
-        SellResult result = holding.sell(quantity, price);
-        balance = balance.add(result.proceeds());
+        SellResult result = holding.sell(quantity, price, getCostBasisMethod().strategy(lotIds));
+        balance = balance.plus(Money.of(result.proceeds()));
         
         if (holding.isEmpty()) {
-            holdings.remove(holding);
+            holdingsByTicker().remove(ticker);
+            if (tradableTicker != null) {
+                // A holding opened and closed before the portfolio is stored never reaches the database
+                if (!openedHoldings.remove(holding)) {
+                    closedHoldings.add(holding);
+                }
+            } else {
+                holdings.remove(holding);
+            }
         }
         
         return result;
     }
     
+    public Optional<Holding> findHolding(String ticker) {
+        checkTradable(ticker);
+        return Optional.ofNullable(holdingsByTicker().get(ticker));
+    }
+    
+    /**
+     * Prepares a portfolio whose holdings were not loaded to trade a single ticker, given
+     * that ticker's holding if the portfolio has one. Only that ticker can be bought or sold
+     * afterwards. That is enough to uphold the aggregate's rules, which concern the balance
+     * and the single holding per ticker, without loading any other holding.
+     */
+    public void limitTradingTo(String ticker, Optional<Holding> holding) {
+        Map<String, Holding> index = new HashMap<>();
+        holding.ifPresent(loaded -> {
+            if (!loaded.getTicker().equals(ticker)) {
+                throw new IllegalArgumentException("Holding " + loaded.getId() + " is not a holding of " + ticker);
+            }
+            index.put(ticker, loaded);
+        });
+        holdingsByTicker = index;
+        tradableTicker = ticker;
+    }
+    
+    /**
+     * Hands over the holdings opened since the last call, to be inserted when the
+     * portfolio is stored. Only portfolios loaded for a single trade have any.
+     */
+    public List<Holding> takeOpenedHoldings() {
+        List<Holding> opened = openedHoldings;
+        openedHoldings = new ArrayList<>();
+        return opened;
+    }
+    
+    /**
+     * Hands over the holdings sold out since the last call, to be deleted when the
+     * portfolio is stored. Only portfolios loaded for a single trade have any.
+     */
+    public List<Holding> takeClosedHoldings() {
+        List<Holding> closed = closedHoldings;
+        closedHoldings = new ArrayList<>();
+        return closed;
+    }
+    
+    private void checkTradable(String ticker) {
+        if (tradableTicker != null && !tradableTicker.equals(ticker)) {
+            throw new IllegalStateException("Portfolio " + id + " was loaded to trade " + tradableTicker + " only");
+        }
+    }
+    
     private Holding findOrCreateHolding(String ticker) {
-        return holdings.stream()
-                .filter(h -> h.getTicker().equals(ticker))
-                .findFirst()
-                .orElseGet(() -> {
-                    Holding newHolding = Holding.create(ticker);
-                    holdings.add(newHolding);
-                    return newHolding;
-                });
+        checkTradable(ticker);
+        return holdingsByTicker().computeIfAbsent(ticker, key -> {
+            Holding newHolding = Holding.create(key);
+            newHolding.attachTo(this);
+            if (tradableTicker != null) {
+                openedHoldings.add(newHolding);
+            } else {
+                holdings.add(newHolding);
+            }
+            return newHolding;
+        });
+    }
+    
+    private Map<String, Holding> holdingsByTicker() {
+        if (holdingsByTicker == null) {
+            Map<String, Holding> index = new HashMap<>();
+            for (Holding holding : holdings) {
+                index.put(holding.getTicker(), holding);
+            }
+            holdingsByTicker = index;
+        }
+        return holdingsByTicker;
     }
     
     // Getters
@@ -134,15 +266,20 @@ public class Portfolio {
     }
     
     public BigDecimal getBalance() {
-        return balance;
+        return balance.toBigDecimal();
     }
     
     public LocalDate getCreatedAt() {
         return createdAt;
     }
     
+    public CostBasisMethod getCostBasisMethod() {
+        // Portfolios stored before the method could be chosen have none and use FIFO
+        return costBasisMethod != null ? costBasisMethod : CostBasisMethod.FIFO;
+    }
+    
     public Set<Holding> getHoldings() {
-        return holdings;
+        return Collections.unmodifiableSet(holdings);
     }
     
     public boolean isEmpty() {
@@ -0,0 +1,26 @@
+package com.alfredorueda.portfolio.domain;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * StockQuote represents the price of a stock observed at a specific moment.
+ * 
+ * In DDD terms, this is a Value Object: two quotes with the same ticker, price
+ * and timestamp are interchangeable.
+ * 
+ * Unlike a plain price, a quote knows when it was observed, so callers can decide
+ * whether it is still recent enough to be used (for example, as a fallback when
+ * the market data provider is unavailable).
+ */
+public record StockQuote(String ticker, BigDecimal price, Instant timestamp) {
+
+    public Duration ageAt(Instant now) {
+        return Duration.between(timestamp, now);
+    }
+
+    public boolean isNewerThan(StockQuote other) {
+        return other == null || timestamp.isAfter(other.timestamp);
+    }
+}
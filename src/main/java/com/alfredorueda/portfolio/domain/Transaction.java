@@ -4,9 +4,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Transaction represents a financial activity within a portfolio.
@@ -28,6 +29,12 @@ import java.util.UUID;
  * for each type of transaction is properly recorded.
  */
 @Entity
+@Table(indexes = {
+    // Transaction history is always read per portfolio, newest first, optionally for one ticker.
+    // The id breaks timestamp ties in the page order, so a page seek is answered from the index alone.
+    @Index(name = "idx_transaction_portfolio_timestamp_id", columnList = "portfolio_id, timestamp, id"),
+    @Index(name = "idx_transaction_portfolio_ticker_timestamp_id", columnList = "portfolio_id, ticker, timestamp, id")
+})
 public class Transaction {
     @Id 
     private String id;
@@ -62,7 +69,7 @@ public class Transaction {
     
     public static Transaction createDeposit(String portfolioId, BigDecimal amount) {
         return new Transaction(
-            UUID.randomUUID().toString(),
+            Ids.next(),
             portfolioId,
             TransactionType.DEPOSIT,
             null,
@@ -76,7 +83,7 @@ public class Transaction {
     
     public static Transaction createWithdrawal(String portfolioId, BigDecimal amount) {
         return new Transaction(
-            UUID.randomUUID().toString(),
+            Ids.next(),
             portfolioId,
             TransactionType.WITHDRAWAL,
             null,
@@ -92,7 +99,7 @@ public class Transaction {
                                             int quantity, BigDecimal unitPrice) {
         BigDecimal totalAmount = unitPrice.multiply(BigDecimal.valueOf(quantity));
         return new Transaction(
-            UUID.randomUUID().toString(),
+            Ids.next(),
             portfolioId,
             TransactionType.PURCHASE,
             ticker,
@@ -108,7 +115,7 @@ public class Transaction {
                                        int quantity, BigDecimal unitPrice, 
                                        BigDecimal totalAmount, BigDecimal profit) {
         return new Transaction(
-            UUID.randomUUID().toString(),
+            Ids.next(),
             portfolioId,
             TransactionType.SALE,
             ticker,
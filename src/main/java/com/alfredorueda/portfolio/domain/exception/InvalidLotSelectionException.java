@@ -0,0 +1,15 @@
+package com.alfredorueda.portfolio.domain.exception;
+
+/**
+ * InvalidLotSelectionException indicates that a sale names lots that cannot be sold.
+ * 
+ * This domain exception is thrown when:
+ * - A sale in a portfolio using specific lot identification does not name any lots
+ * - A named lot does not exist in the holding or has no shares left
+ * - The named lots together hold fewer shares than the quantity being sold
+ */
+public class InvalidLotSelectionException extends DomainException {
+    public InvalidLotSelectionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.alfredorueda.portfolio.adapters.in.feed;
+
+import com.alfredorueda.portfolio.adapters.out.price.InMemoryPriceBook;
+import com.alfredorueda.portfolio.adapters.out.price.PriceBookStockPriceAdapter;
+import com.alfredorueda.portfolio.application.service.MarketDataIngestionService;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays a tick file through the ingestion use case into the price book and checks
+ * that trades are then priced from memory without calling the remote provider.
+ */
+public class ReplayMarketDataFeedTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final InMemoryPriceBook priceBook = new InMemoryPriceBook();
+    private final MarketDataIngestionService ingestionService = new MarketDataIngestionService(priceBook);
+
+    @Test
+    public void testReplayedTicksArePricedFromTheBook() throws Exception {
+        Path file = tempDir.resolve("ticks.csv");
+        Files.writeString(file, """
+                # offsetMillis,ticker,price
+                0,AAPL,150.10
+                5,MSFT,301.00
+                not-a-tick
+                10,AAPL,150.25
+                """);
+
+        ReplayMarketDataFeed feed = new ReplayMarketDataFeed(ingestionService, file, 0, false, Clock.systemUTC());
+        assertEquals(3, feed.replay());
+
+        PriceBookStockPriceAdapter adapter = new PriceBookStockPriceAdapter(
+                priceBook,
+                ticker -> fail("Remote provider should not be called for " + ticker),
+                Duration.ofSeconds(5),
+                Clock.systemUTC());
+
+        assertEquals(new BigDecimal("150.25"), adapter.fetchStockPrice("AAPL"));
+        assertEquals(new BigDecimal("301.00"), adapter.fetchStockPrice("MSFT"));
+    }
+
+    @Test
+    public void testOutOfOrderTickDoesNotReplaceNewerQuote() {
+        Instant now = Instant.now();
+        assertTrue(ingestionService.onQuote(new StockQuote("AAPL", new BigDecimal("151.00"), now)));
+        assertFalse(ingestionService.onQuote(new StockQuote("AAPL", new BigDecimal("149.00"), now.minusSeconds(1))));
+
+        assertEquals(new BigDecimal("151.00"), priceBook.find("AAPL").orElseThrow().price());
+    }
+
+    @Test
+    public void testStaleBookQuoteFallsBackToDelegate() {
+        priceBook.update(new StockQuote("AAPL", new BigDecimal("140.00"), Instant.now().minusSeconds(60)));
+
+        PriceBookStockPriceAdapter adapter = new PriceBookStockPriceAdapter(
+                priceBook, ticker -> new BigDecimal("155.00"), Duration.ofSeconds(5), Clock.systemUTC());
+
+        assertEquals(new BigDecimal("155.00"), adapter.fetchStockPrice("AAPL"));
+    }
+}
@@ -289,6 +289,54 @@ public class PortfolioControllerIT {
             .body("[0].ticker", equalTo("AAPL"));
     }
     
+    @Test
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    public void testGetTransactionsPageByPage() {
+        for (String amount : new String[] {"100.00", "200.00", "300.00"}) {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"amount\": " + amount + "}")
+                .when()
+                .post("/api/portfolios/{id}/deposits", portfolioId)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+        }
+        
+        // First page, with a cursor to the next one
+        String cursor = given()
+            .when()
+            .get("/api/portfolios/{id}/transactions?limit=2", portfolioId)
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("$", hasSize(2))
+            .body("[0].totalAmount", equalTo(300.0f))
+            .header("X-Next-Cursor", notNullValue())
+            .extract()
+            .header("X-Next-Cursor");
+        
+        // Last page, without a cursor
+        given()
+            .when()
+            .get("/api/portfolios/{id}/transactions?limit=2&cursor={cursor}", portfolioId, cursor)
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("$", hasSize(1))
+            .body("[0].totalAmount", equalTo(100.0f))
+            .header("X-Next-Cursor", nullValue());
+        
+        given()
+            .when()
+            .get("/api/portfolios/{id}/transactions?cursor=not-a-cursor", portfolioId)
+            .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+        
+        given()
+            .when()
+            .get("/api/portfolios/{id}/transactions?limit=10000", portfolioId)
+            .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+    
     @Test
     @Timeout(value = 30, unit = TimeUnit.SECONDS)
     public void testGetPortfolioPerformance() {
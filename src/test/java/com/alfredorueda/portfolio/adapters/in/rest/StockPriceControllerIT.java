@@ -16,7 +16,8 @@ import static org.hamcrest.Matchers.*;
 
 /**
  * End-to-end integration test for the StockPriceController.
- * This test uses the real FinHub API without mocking.
+ * This test runs the full HTTP client stack against the bundled FinHub stub server
+ * (see application-integrationtest.properties) instead of mocking it.
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("integrationtest")
@@ -101,4 +102,24 @@ public class StockPriceControllerIT {
             }
         }
     }
+    
+    /**
+     * Tests retrieving several stock prices in one request.
+     * Duplicate tickers are collapsed and the request order is preserved.
+     */
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testGetStockPrices() {
+        given()
+            .queryParam("tickers", "AAPL,MSFT,AAPL")
+            .when()
+            .get("/api/stocks/prices")
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("size()", equalTo(2))
+            .body("[0].ticker", equalTo("AAPL"))
+            .body("[0].price", greaterThan(0.0f))
+            .body("[1].ticker", equalTo("MSFT"))
+            .body("[1].price", greaterThan(0.0f));
+    }
 }
@@ -0,0 +1,42 @@
+package com.alfredorueda.portfolio.adapters.in.rest.exception;
+
+import com.alfredorueda.portfolio.adapters.in.rest.dto.ErrorResponse;
+import com.alfredorueda.portfolio.application.port.in.PortfolioBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for the HTTP status the GlobalExceptionHandler gives to concurrency failures.
+ */
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/portfolios/p1/deposit");
+
+    @Test
+    public void testVersionConflictIsAConflict() {
+        // What a repository throws when the saved portfolio carries an outdated version
+        ObjectOptimisticLockingFailureException conflict =
+                new ObjectOptimisticLockingFailureException("Portfolio", "p1");
+
+        ResponseEntity<ErrorResponse> response = handler.handleOptimisticLockingFailureException(conflict, request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(409, response.getBody().statusCode());
+        assertEquals("/api/portfolios/p1/deposit", response.getBody().path());
+    }
+
+    @Test
+    public void testFullCommandLaneIsTooManyRequests() {
+        ResponseEntity<ErrorResponse> response = handler.handlePortfolioBusyException(
+                new PortfolioBusyException("Too many commands queued for portfolio: p1"), request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals(429, response.getBody().statusCode());
+    }
+}
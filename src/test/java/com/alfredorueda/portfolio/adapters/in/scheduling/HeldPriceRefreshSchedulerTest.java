@@ -0,0 +1,58 @@
+package com.alfredorueda.portfolio.adapters.in.scheduling;
+
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for the HeldPriceRefreshScheduler's per-run budget and metrics.
+ */
+public class HeldPriceRefreshSchedulerTest {
+
+    private final List<Integer> budgets = new ArrayList<>();
+
+    @Test
+    public void testQuotaPerMinuteIsSplitAcrossRuns() {
+        assertEquals(5, new HeldPriceRefreshScheduler(budget -> null, 10_000, 30).budgetPerRun());
+        assertEquals(60, new HeldPriceRefreshScheduler(budget -> null, 120_000, 30).budgetPerRun());
+        assertEquals(1, new HeldPriceRefreshScheduler(budget -> null, 1_000, 30).budgetPerRun(),
+                "Every run refreshes at least one ticker");
+    }
+
+    @Test
+    public void testRunsCountRefreshedAndFailedTickers() {
+        HeldPriceRefreshScheduler scheduler = new HeldPriceRefreshScheduler(budget -> {
+            budgets.add(budget);
+            return new BatchPriceResult(Map.of("AAPL", BigDecimal.ONE, "MSFT", BigDecimal.ONE), Map.of("TSLA", "down"));
+        }, 10_000, 30);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler.bindTo(registry);
+
+        scheduler.refreshHeldPrices();
+        scheduler.refreshHeldPrices();
+
+        assertEquals(List.of(5, 5), budgets);
+        assertEquals(4.0, registry.get("price.refresh.tickers").tag("result", "refreshed").functionCounter().count());
+        assertEquals(2.0, registry.get("price.refresh.tickers").tag("result", "failed").functionCounter().count());
+    }
+
+    @Test
+    public void testFailedRunDoesNotStopLaterRuns() {
+        HeldPriceRefreshScheduler scheduler = new HeldPriceRefreshScheduler(budget -> {
+            budgets.add(budget);
+            throw new IllegalStateException("database down");
+        }, 10_000, 30);
+
+        scheduler.refreshHeldPrices();
+        scheduler.refreshHeldPrices();
+
+        assertEquals(2, budgets.size());
+    }
+}
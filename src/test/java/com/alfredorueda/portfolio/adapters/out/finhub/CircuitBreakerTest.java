@@ -0,0 +1,80 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the CircuitBreaker state machine.
+ */
+public class CircuitBreakerTest {
+
+    private final List<String> transitions = new ArrayList<>();
+
+    @Test
+    public void testOpensAfterConsecutiveFailuresAndRejectsCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    public void testSuccessResetsFailureCount() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void testHalfOpenAllowsSingleProbe() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        tripOpen(breaker);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquirePermission(), "Only one probe is allowed while half-open");
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    public void testFailedProbeReopens() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        tripOpen(breaker);
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker(3, openDuration, Clock.systemUTC(),
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private void tripOpen(CircuitBreaker breaker) {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import com.alfredorueda.portfolio.adapters.out.finhub.stub.FinHubStubProperties;
+import com.alfredorueda.portfolio.adapters.out.finhub.stub.FinHubStubServer;
+import com.alfredorueda.portfolio.adapters.out.price.LastKnownPriceStore;
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the FinHubClient over real HTTP, against the bundled FinHub stub server
+ * and, for responses the stub cannot produce, a scripted server.
+ */
+public class FinHubClientTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final List<FinHubClient> clients = new ArrayList<>();
+    private final LastKnownPriceStore lastKnownPrices = new LastKnownPriceStore();
+    private FinHubStubServer stub;
+    private HttpServer scripted;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        clients.forEach(FinHubClient::shutdown);
+        if (stub != null) {
+            stub.stop();
+        }
+        if (scripted != null) {
+            scripted.stop(0);
+        }
+    }
+
+    @Test
+    public void testFetchesQuoteAndRemembersIt() throws Exception {
+        FinHubClient client = client(stubUrl(replay("0,AAPL,187.25\n"), 0, 0.0), 5, 5000, 3);
+
+        assertEquals(new BigDecimal("187.25"), quote(client, "AAPL"));
+        assertEquals(new BigDecimal("187.25"), lastKnownPrices.find("AAPL").orElseThrow().price());
+    }
+
+    @Test
+    public void testEncodesSymbolsThatAreNotValidInAUri() throws Exception {
+        FinHubClient client = client(stubUrl(replay("0,BRK B,412.10\n0,^GSPC,5021.50\n"), 0, 0.0), 5, 5000, 3);
+
+        assertEquals(new BigDecimal("412.10"), quote(client, "BRK B"));
+        assertEquals(new BigDecimal("5021.50"), quote(client, "^GSPC"));
+    }
+
+    @Test
+    public void testFailsOnNonOkStatusAfterRetrying() throws Exception {
+        FinHubClient client = client(stubUrl(null, 0, 1.0), 100, 5000, 3);
+
+        Throwable failure = failure(client, "AAPL");
+
+        assertTrue(failure.getMessage().contains("after 3 attempts"), failure.getMessage());
+        assertTrue(failure.getCause().getMessage().contains("status"), failure.getCause().getMessage());
+    }
+
+    @Test
+    public void testFailsWhenResponseMissesDeadline() throws Exception {
+        FinHubClient client = client(stubUrl(null, 1000, 0.0), 100, 100, 1);
+
+        Throwable failure = failure(client, "AAPL");
+
+        assertInstanceOf(HttpTimeoutException.class, failure.getCause());
+    }
+
+    @Test
+    public void testFailsOnMalformedJson() throws Exception {
+        FinHubClient client = client(scriptedUrl(), 100, 5000, 1);
+
+        Throwable failure = failure(client, "GARBAGE");
+
+        assertInstanceOf(UncheckedIOException.class, failure);
+    }
+
+    @Test
+    public void testBreakerOpensAfterThresholdOfFailedRequestsNotAttempts() throws Exception {
+        // Three attempts per request; were attempts counted the first request would open the breaker
+        FinHubClient client = client(scriptedUrl(), 3, 5000, 3);
+
+        failure(client, "ERROR");
+        failure(client, "ERROR");
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+        assertEquals(6, requests.get());
+
+        failure(client, "ERROR");
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        assertInstanceOf(CircuitBreaker.CallNotPermittedException.class, failure(client, "OK"));
+    }
+
+    @Test
+    public void testClientErrorsAndMalformedQuotesAreNotRetriedNorCounted() throws Exception {
+        FinHubClient client = client(scriptedUrl(), 1, 5000, 3);
+
+        assertEquals(404, assertInstanceOf(FinHubClient.StatusException.class, failure(client, "MISSING")).statusCode());
+        assertInstanceOf(UncheckedIOException.class, failure(client, "GARBAGE"));
+
+        assertEquals(2, requests.get());
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    public void testBreakerPermissionIsReturnedOnEveryFailure() throws Exception {
+        // Opens on the first failed request and lets a probe through 50 ms later
+        FinHubClient client = client(scriptedUrl(), 1, 100, 1, 50, 6000, 10);
+
+        for (String failing : List.of("ERROR", "SLOW")) {
+            failure(client, failing);
+            assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+
+            // The failed call must have recorded its outcome, so a later probe is let through
+            TimeUnit.MILLISECONDS.sleep(80);
+            assertEquals(new BigDecimal("100.00"), quote(client, "OK"));
+            assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+        }
+
+        // A probe that fails without blaming the provider hands the probe on to the next call
+        failure(client, "ERROR");
+        TimeUnit.MILLISECONDS.sleep(80);
+        failure(client, "GARBAGE");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.circuitState());
+        assertEquals(new BigDecimal("100.00"), quote(client, "OK"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    public void testBreakerPermissionIsReturnedWhenNoQuotaIsLeft() throws Exception {
+        // A single token per minute, so only the first call is sent at all
+        FinHubClient client = client(scriptedUrl(), 1, 5000, 1, 50, 1, 20);
+
+        failure(client, "ERROR");
+        TimeUnit.MILLISECONDS.sleep(80);
+
+        // Both calls are permitted by the half-open breaker and then fail for lack of quota
+        assertInstanceOf(PriorityRateLimiter.RateLimitExceededException.class, failure(client, "OK"));
+        assertInstanceOf(PriorityRateLimiter.RateLimitExceededException.class, failure(client, "OK"));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.circuitState());
+    }
+
+    @Test
+    public void testUrgentCallerRaisesTheSharedRequestInsteadOfQueueingBehindIt() throws Exception {
+        // One token every 100 ms; the first call takes the only token
+        FinHubClient client = client(scriptedUrl(), 5, 5000, 1, 30000, 600, 5000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client.bindTo(registry);
+        quote(client, "OK");
+
+        CompletableFuture<BigDecimal> streaming = client.quote("AAPL", PriceRequestPriority.STREAMING);
+        CompletableFuture<BigDecimal> trade = client.quote("AAPL", PriceRequestPriority.TRADE);
+
+        assertEquals(0.0, queueDepth(registry, PriceRequestPriority.STREAMING));
+        assertEquals(1.0, queueDepth(registry, PriceRequestPriority.TRADE));
+        assertEquals(new BigDecimal("100.00"), trade.get(5, TimeUnit.SECONDS));
+        assertEquals(new BigDecimal("100.00"), streaming.get(5, TimeUnit.SECONDS));
+        assertEquals(2, requests.get());
+    }
+
+    private static double queueDepth(SimpleMeterRegistry registry, PriceRequestPriority priority) {
+        return registry.get("finhub.ratelimit.queue.depth").tag("priority", priority.name().toLowerCase()).gauge().value();
+    }
+
+    private BigDecimal quote(FinHubClient client, String symbol) throws Exception {
+        return client.quote(symbol, PriceRequestPriority.TRADE).get(10, TimeUnit.SECONDS);
+    }
+
+    private Throwable failure(FinHubClient client, String symbol) {
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> client.quote(symbol, PriceRequestPriority.TRADE).orTimeout(10, TimeUnit.SECONDS).join());
+        return failure.getCause();
+    }
+
+    private FinHubClient client(String baseUrl, int failureThreshold, long requestTimeoutMs, int attempts) {
+        return client(baseUrl, failureThreshold, requestTimeoutMs, attempts, 30000, 6000, 10000);
+    }
+
+    private FinHubClient client(String baseUrl, int failureThreshold, long requestTimeoutMs, int attempts,
+                                long openDurationMs, int ratePerMinute, long maxQuotaWaitMs) {
+        FinHubProperties properties = new FinHubProperties(
+                baseUrl, "test-key",
+                failureThreshold, openDurationMs,
+                ratePerMinute, 1, maxQuotaWaitMs, 0,
+                1000, requestTimeoutMs, 4,
+                attempts, 1,
+                null);
+        FinHubClient client = new FinHubClient("test", new ObjectMapper(), properties, lastKnownPrices);
+        clients.add(client);
+        return client;
+    }
+
+    private Path replay(String lines) throws IOException {
+        Path file = tempDir.resolve("replay.csv");
+        Files.writeString(file, lines);
+        return file;
+    }
+
+    private String stubUrl(Path replayFile, long latencyMs, double errorRate) {
+        stub = new FinHubStubServer(new FinHubStubProperties(
+                true, 0, latencyMs, 0, errorRate, 42, replayFile, null, null));
+        stub.start();
+        return "http://localhost:" + stub.port();
+    }
+
+    /**
+     * Answers by symbol: ERROR with a 500, MISSING with a 404, GARBAGE with a body that is not JSON, SLOW after
+     * the client's deadline, and anything else with a price of 100.00.
+     */
+    private String scriptedUrl() throws IOException {
+        scripted = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        scripted.createContext("/api/v1/quote", exchange -> {
+            requests.incrementAndGet();
+            String query = exchange.getRequestURI().getRawQuery();
+            String symbol = URLDecoder.decode(query.substring(query.indexOf('=') + 1, query.indexOf('&')),
+                    StandardCharsets.UTF_8);
+            switch (symbol) {
+                case "ERROR" -> respond(exchange, 500, "{\"error\":\"boom\"}");
+                case "MISSING" -> respond(exchange, 404, "{\"error\":\"unknown symbol\"}");
+                case "GARBAGE" -> respond(exchange, 200, "{\"c\": not-a-price");
+                case "SLOW" -> {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, "{\"c\":100.00}");
+                }
+                default -> respond(exchange, 200, "{\"c\":100.00}");
+            }
+        });
+        // A slow answer must not hold up the requests after it
+        scripted.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        scripted.start();
+        return "http://localhost:" + scripted.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try (exchange) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
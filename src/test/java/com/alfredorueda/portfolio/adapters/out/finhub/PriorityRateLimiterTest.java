@@ -0,0 +1,110 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the PriorityRateLimiter with a small, fast refilling bucket.
+ */
+public class PriorityRateLimiterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testQueuedTradesAreServedBeforeLowerPriorities() throws Exception {
+        // One token every 100 ms, no burst beyond a single token
+        PriorityRateLimiter limiter = new PriorityRateLimiter(
+                600, 1, Duration.ofSeconds(5), scheduler, (priority, waited) -> { });
+        List<PriceRequestPriority> served = new CopyOnWriteArrayList<>();
+
+        assertTrue(limiter.acquire(PriceRequestPriority.STREAMING).isDone(), "The first token is available immediately");
+
+        CompletableFuture<Void> streaming = limiter.acquire(PriceRequestPriority.STREAMING)
+                .thenRun(() -> served.add(PriceRequestPriority.STREAMING));
+        CompletableFuture<Void> valuation = limiter.acquire(PriceRequestPriority.VALUATION)
+                .thenRun(() -> served.add(PriceRequestPriority.VALUATION));
+        CompletableFuture<Void> trade = limiter.acquire(PriceRequestPriority.TRADE)
+                .thenRun(() -> served.add(PriceRequestPriority.TRADE));
+
+        assertEquals(1, limiter.queueDepth(PriceRequestPriority.TRADE));
+        CompletableFuture.allOf(streaming, valuation, trade).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of(PriceRequestPriority.TRADE, PriceRequestPriority.VALUATION, PriceRequestPriority.STREAMING),
+                served);
+        assertEquals(0, limiter.queueDepth(PriceRequestPriority.STREAMING));
+    }
+
+    @Test
+    public void testRaisedWaiterIsServedAtItsNewPriority() throws Exception {
+        PriorityRateLimiter limiter = new PriorityRateLimiter(
+                600, 1, Duration.ofSeconds(5), scheduler, (priority, waited) -> { });
+        List<PriceRequestPriority> served = new CopyOnWriteArrayList<>();
+        limiter.acquire(PriceRequestPriority.TRADE);
+
+        CompletableFuture<Void> valuation = limiter.acquire(PriceRequestPriority.VALUATION)
+                .thenRun(() -> served.add(PriceRequestPriority.VALUATION));
+        CompletableFuture<Void> streamingToken = limiter.acquire(PriceRequestPriority.STREAMING);
+        CompletableFuture<Void> streaming = streamingToken.thenRun(() -> served.add(PriceRequestPriority.TRADE));
+
+        assertTrue(limiter.raisePriority(streamingToken, PriceRequestPriority.TRADE));
+        assertEquals(0, limiter.queueDepth(PriceRequestPriority.STREAMING));
+        assertEquals(1, limiter.queueDepth(PriceRequestPriority.TRADE));
+        CompletableFuture.allOf(valuation, streaming).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of(PriceRequestPriority.TRADE, PriceRequestPriority.VALUATION), served);
+        assertFalse(limiter.raisePriority(streamingToken, PriceRequestPriority.TRADE), "No longer waiting");
+    }
+
+    @Test
+    public void testBackgroundCallersLeaveTheReserveToUserRequests() throws Exception {
+        // Three tokens, two of them reserved; one token every 100 ms
+        PriorityRateLimiter limiter = new PriorityRateLimiter(
+                600, 3, 2, Duration.ofSeconds(5), scheduler, (priority, waited) -> { });
+
+        assertTrue(limiter.acquire(PriceRequestPriority.BACKGROUND).isDone());
+        CompletableFuture<Void> background = limiter.acquire(PriceRequestPriority.BACKGROUND);
+        assertFalse(background.isDone(), "Only the reserve is left");
+
+        // User requests still burst through the reserve, even with background work queued
+        assertTrue(limiter.acquire(PriceRequestPriority.STREAMING).isDone());
+        assertTrue(limiter.acquire(PriceRequestPriority.TRADE).isDone());
+        assertFalse(background.isDone());
+
+        // Served once the bucket has refilled above the reserve
+        background.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testWaitersGiveUpAfterMaximumWait() {
+        // One token per minute: the queued caller cannot be served within the maximum wait
+        PriorityRateLimiter limiter = new PriorityRateLimiter(
+                1, 1, Duration.ZERO, scheduler, (priority, waited) -> { });
+        limiter.acquire(PriceRequestPriority.TRADE);
+
+        CompletableFuture<Void> queued = limiter.acquire(PriceRequestPriority.VALUATION);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(PriorityRateLimiter.RateLimitExceededException.class, error.getCause());
+    }
+}
@@ -0,0 +1,87 @@
+package com.alfredorueda.portfolio.adapters.out.finhub;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for SingleFlight request coalescing.
+ */
+public class SingleFlightTest {
+
+    private final Map<String, Integer> callersPerFlight = new ConcurrentHashMap<>();
+    private final SingleFlight<String, BigDecimal> singleFlight = new SingleFlight<>(callersPerFlight::put);
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    public void testConcurrentCallersShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<BigDecimal> outbound = new CompletableFuture<>();
+
+        List<CompletableFuture<BigDecimal>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(singleFlight.execute("AAPL", () -> {
+                calls.incrementAndGet();
+                return outbound;
+            }));
+        }
+        assertEquals(1, singleFlight.inFlight());
+
+        outbound.complete(new BigDecimal("150.00"));
+
+        results.forEach(result -> assertEquals(new BigDecimal("150.00"), result.join()));
+        assertEquals(1, calls.get());
+        assertEquals(10, callersPerFlight.get("AAPL"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    public void testErrorIsSharedAndNextCallStartsNewFlight() {
+        CompletableFuture<BigDecimal> outbound = new CompletableFuture<>();
+        CompletableFuture<BigDecimal> leader = singleFlight.execute("MSFT", () -> outbound);
+        CompletableFuture<BigDecimal> follower = singleFlight.execute("MSFT", () -> fail("Should join the leader"));
+
+        outbound.completeExceptionally(new IllegalStateException("provider down"));
+
+        assertThrows(CompletionException.class, leader::join);
+        CompletionException error = assertThrows(CompletionException.class, follower::join);
+        assertEquals("provider down", error.getCause().getMessage());
+
+        BigDecimal next = singleFlight.execute("MSFT",
+                () -> CompletableFuture.completedFuture(new BigDecimal("300.00"))).join();
+        assertEquals(new BigDecimal("300.00"), next);
+        assertEquals(1, callersPerFlight.get("MSFT"));
+    }
+
+    @Test
+    public void testJoiningCallersSeeTheLeadersState() {
+        List<String> leaderState = new ArrayList<>(List.of("leader"));
+        CompletableFuture<BigDecimal> outbound = new CompletableFuture<>();
+
+        singleFlight.execute("AAPL", leaderState, state -> outbound, state -> fail("The leader does not join"));
+        singleFlight.execute("AAPL", new ArrayList<>(List.of("unused")), state -> fail("Should join the leader"),
+                state -> state.add("follower"));
+
+        assertEquals(List.of("leader", "follower"), leaderState);
+    }
+
+    @Test
+    public void testDifferentKeysDoNotShareFlights() {
+        CompletableFuture<BigDecimal> aapl = singleFlight.execute("AAPL", CompletableFuture::new);
+        CompletableFuture<BigDecimal> msft = singleFlight.execute("MSFT", CompletableFuture::new);
+
+        assertNotSame(aapl, msft);
+        assertEquals(2, singleFlight.inFlight());
+    }
+}
@@ -0,0 +1,88 @@
+package com.alfredorueda.portfolio.adapters.out.finhub.stub;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the FinHub stub server, exercised over real HTTP on a free port.
+ */
+public class FinHubStubServerTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private FinHubStubServer server;
+
+    @AfterEach
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testReplaysRecordedQuotesInOrder() throws Exception {
+        Path replay = tempDir.resolve("replay.csv");
+        Path recording = tempDir.resolve("recording.csv");
+        Files.writeString(replay, "0,AAPL,150.00\n10,AAPL,151.50\n");
+
+        server = start(new FinHubStubProperties(true, 0, 0, 0, 0.0, 42, replay, recording, null));
+
+        assertTrue(get("AAPL").body().contains("\"c\":150.00"));
+        assertTrue(get("AAPL").body().contains("\"c\":151.50"));
+        assertTrue(get("AAPL").body().contains("\"c\":150.00"));
+
+        server.stop();
+        List<String> recorded = Files.readAllLines(recording);
+        assertEquals(3, recorded.size());
+        assertTrue(recorded.get(1).endsWith(",AAPL,151.50"));
+    }
+
+    @Test
+    public void testSyntheticPricesAreRepeatableForSameSeed() throws Exception {
+        server = start(new FinHubStubProperties(true, 0, 0, 0, 0.0, 7, null, null, null));
+        String first = price(get("MSFT").body());
+        String second = price(get("MSFT").body());
+        server.stop();
+
+        server = start(new FinHubStubProperties(true, 0, 0, 0, 0.0, 7, null, null, null));
+        assertEquals(first, price(get("MSFT").body()));
+        assertEquals(second, price(get("MSFT").body()));
+    }
+
+    @Test
+    public void testInjectsErrors() throws Exception {
+        server = start(new FinHubStubProperties(true, 0, 0, 0, 1.0, 42, null, null, null));
+
+        int status = get("AAPL").statusCode();
+
+        assertTrue(status == 429 || status == 500, "Unexpected status " + status);
+    }
+
+    private FinHubStubServer start(FinHubStubProperties properties) {
+        FinHubStubServer stub = new FinHubStubServer(properties);
+        stub.start();
+        return stub;
+    }
+
+    private HttpResponse<String> get(String symbol) throws Exception {
+        URI uri = URI.create("http://localhost:" + server.port() + "/api/v1/quote?symbol=" + symbol + "&token=test");
+        return httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String price(String json) {
+        return json.substring(json.indexOf("\"c\":") + 4, json.indexOf(','));
+    }
+}
@@ -0,0 +1,61 @@
+package com.alfredorueda.portfolio.adapters.out.persistence;
+
+import com.alfredorueda.portfolio.domain.Portfolio;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persistence test for reading the tickers held across all portfolios.
+ */
+@DataJpaTest
+@Import(HoldingPersistenceAdapter.class)
+public class HoldingPersistenceAdapterTest {
+
+    @Autowired
+    private HoldingPersistenceAdapter adapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testHeldTickersAreOrderedByNumberOfHoldings() {
+        portfolioHolding("MSFT", "AAPL", "TSLA");
+        portfolioHolding("TSLA", "AAPL");
+        portfolioHolding("AAPL", "NVDA");
+        // Many lots of one ticker in one portfolio are still one holding
+        portfolioHolding("NVDA", "NVDA", "NVDA");
+
+        assertEquals(List.of("AAPL", "NVDA", "TSLA", "MSFT"), adapter.findHeldTickersByPopularity());
+    }
+
+    @Test
+    public void testSoldOutTickersAreNotHeld() {
+        Portfolio portfolio = Portfolio.create("Jane");
+        portfolio.deposit(new BigDecimal("1000"));
+        portfolio.buy("AAPL", 1, new BigDecimal("10"));
+        portfolio.sell("AAPL", 1, new BigDecimal("10"));
+        entityManager.persist(portfolio);
+        entityManager.flush();
+
+        assertTrue(adapter.findHeldTickersByPopularity().isEmpty());
+    }
+
+    private void portfolioHolding(String... tickers) {
+        Portfolio portfolio = Portfolio.create("Jane");
+        portfolio.deposit(new BigDecimal("100000"));
+        for (String ticker : tickers) {
+            portfolio.buy(ticker, 1, new BigDecimal("10"));
+        }
+        entityManager.persist(portfolio);
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,264 @@
+package com.alfredorueda.portfolio.adapters.out.persistence;
+
+import com.alfredorueda.portfolio.domain.Holding;
+import com.alfredorueda.portfolio.domain.Portfolio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persistence test for loading the Portfolio aggregate, counting the SQL statements
+ * Hibernate prepares to load a portfolio, in full or for a single trade.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PortfolioPersistenceAdapter.class)
+public class PortfolioPersistenceAdapterTest {
+
+    @Autowired
+    private PortfolioPersistenceAdapter adapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testAggregateLoadsInOneStatementRegardlessOfSize() {
+        assertEquals(1, statementsToLoad(portfolioWith(1, 1)));
+        assertEquals(1, statementsToLoad(portfolioWith(20, 5)));
+    }
+
+    @Test
+    public void testRootLoadDoesNotTouchHoldings() {
+        String small = portfolioWith(1, 1);
+        String large = portfolioWith(20, 5);
+
+        for (String id : new String[] {small, large}) {
+            entityManager.clear();
+            statistics.clear();
+
+            Portfolio portfolio = adapter.findById(id).orElseThrow();
+            portfolio.deposit(BigDecimal.ONE);
+            adapter.save(portfolio);
+            entityManager.flush();
+
+            assertEquals(1, statistics.getEntityLoadCount());
+        }
+        assertTrue(adapter.existsById(large));
+        assertFalse(adapter.existsById("missing"));
+    }
+
+    @Test
+    public void testLoadedAggregateHasEveryHoldingAndLot() {
+        String id = portfolioWith(3, 4);
+        entityManager.clear();
+
+        Portfolio portfolio = adapter.findAggregateById(id).orElseThrow();
+
+        assertEquals(3, portfolio.getHoldings().size());
+        for (Holding holding : portfolio.getHoldings()) {
+            assertEquals(4, holding.getLots().size());
+            assertEquals(40, holding.getTotalShares());
+        }
+    }
+
+    @Test
+    public void testTradeCostDoesNotDependOnOtherHoldings() {
+        assertEquals(statementsToSell(portfolioWith(2, 5), 15), statementsToSell(portfolioWith(30, 5), 15));
+    }
+
+    @Test
+    public void testSellingOutCostDoesNotDependOnOtherHoldings() {
+        String small = portfolioWith(2, 3);
+        String large = portfolioWith(30, 3);
+
+        long smallStatements = statementsToSell(small, 30);
+        long smallEntitiesLoaded = statistics.getEntityLoadCount();
+        long largeStatements = statementsToSell(large, 30);
+
+        assertEquals(smallStatements, largeStatements);
+        // Loading every holding takes a single statement, so count the rows it would materialize
+        assertEquals(smallEntitiesLoaded, statistics.getEntityLoadCount());
+
+        entityManager.clear();
+        assertTrue(adapter.findAggregateById(large).orElseThrow().findHolding("T1").isEmpty());
+        assertEquals(29, adapter.findAggregateById(large).orElseThrow().getHoldings().size());
+    }
+
+    @Test
+    public void testOpeningAHoldingCostDoesNotDependOnOtherHoldings() {
+        String small = portfolioWith(2, 3);
+        String large = portfolioWith(30, 3);
+
+        long smallStatements = statementsToBuy(small, "NEW");
+        long smallEntitiesLoaded = statistics.getEntityLoadCount();
+        long largeStatements = statementsToBuy(large, "NEW");
+
+        assertEquals(smallStatements, largeStatements);
+        assertEquals(smallEntitiesLoaded, statistics.getEntityLoadCount());
+
+        entityManager.clear();
+        assertEquals(31, adapter.findAggregateById(large).orElseThrow().getHoldings().size());
+        assertEquals(5, adapter.findAggregateById(large).orElseThrow().findHolding("NEW").orElseThrow().getTotalShares());
+    }
+
+    @Test
+    public void testHoldingOpenedAndSoldOutBeforeSavingIsNeverStored() {
+        String id = portfolioWith(1, 1);
+        entityManager.clear();
+
+        Portfolio portfolio = adapter.findByIdForTrade(id, "NEW").orElseThrow();
+        portfolio.buy("NEW", 5, new BigDecimal("10"));
+        portfolio.sell("NEW", 5, new BigDecimal("12"));
+        adapter.save(portfolio);
+        entityManager.flush();
+        entityManager.clear();
+
+        Portfolio reloaded = adapter.findAggregateById(id).orElseThrow();
+        assertEquals(1, reloaded.getHoldings().size());
+        assertTrue(reloaded.findHolding("NEW").isEmpty());
+    }
+
+    @Test
+    public void testTradesOnAPartiallyLoadedPortfolioArePersisted() {
+        String id = portfolioWith(3, 2);
+        entityManager.clear();
+
+        Portfolio portfolio = adapter.findByIdForTrade(id, "T1").orElseThrow();
+        portfolio.sell("T1", 20, new BigDecimal("12"));
+        adapter.save(portfolio);
+        portfolio = adapter.findByIdForTrade(id, "NEW").orElseThrow();
+        portfolio.buy("NEW", 5, new BigDecimal("10"));
+        adapter.save(portfolio);
+        entityManager.flush();
+        entityManager.clear();
+
+        Portfolio reloaded = adapter.findAggregateById(id).orElseThrow();
+        assertEquals(3, reloaded.getHoldings().size());
+        assertTrue(reloaded.findHolding("T1").isEmpty());
+        assertEquals(5, reloaded.findHolding("NEW").orElseThrow().getTotalShares());
+        assertEquals(0, new BigDecimal("999590").compareTo(reloaded.getBalance()));
+    }
+
+    @Test
+    public void testExhaustedLotsAreCompactedAcrossReloads() {
+        String id = portfolioWith(1, 10);
+
+        // One request per sale: each sale exhausts one lot of a freshly loaded holding
+        for (int sale = 1; sale <= 9; sale++) {
+            entityManager.clear();
+            Portfolio portfolio = adapter.findByIdForTrade(id, "T0").orElseThrow();
+            portfolio.sell("T0", 10, new BigDecimal("12"));
+            adapter.save(portfolio);
+            entityManager.flush();
+
+            long storedLots = entityManager.createQuery(
+                    "SELECT COUNT(l) FROM Holding h JOIN h.lots l WHERE h.portfolio.id = :id", Long.class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+            assertTrue(storedLots <= 2L * (10 - sale) + 1,
+                    "After sale " + sale + " exhausted lots still stored: " + (storedLots - (10 - sale)));
+        }
+
+        entityManager.clear();
+        Holding holding = adapter.findAggregateById(id).orElseThrow().findHolding("T0").orElseThrow();
+        assertEquals(1, holding.getLots().size());
+        assertEquals(10, holding.getTotalShares());
+    }
+
+    @Test
+    public void testPortfolioLoadedForTradeOnlyTradesThatTicker() {
+        String id = portfolioWith(2, 1);
+        entityManager.clear();
+
+        Portfolio portfolio = adapter.findByIdForTrade(id, "T0").orElseThrow();
+
+        assertThrows(IllegalStateException.class, () -> portfolio.buy("T1", 1, new BigDecimal("10")));
+    }
+
+    @Test
+    public void testSavingAStalePortfolioIsAConflict() {
+        String id = portfolioWith(1, 1);
+        entityManager.clear();
+        Portfolio stale = adapter.findAggregateById(id).orElseThrow();
+        entityManager.clear();
+
+        // Another writer, e.g. a second instance, commits first
+        Portfolio current = adapter.findByIdForTrade(id, "T0").orElseThrow();
+        current.deposit(BigDecimal.ONE);
+        adapter.save(current);
+        entityManager.flush();
+        entityManager.clear();
+
+        stale.deposit(BigDecimal.TEN);
+        assertThrows(OptimisticLockingFailureException.class, () -> adapter.save(stale));
+    }
+
+    private long statementsToSell(String portfolioId, int quantity) {
+        entityManager.clear();
+        statistics.clear();
+
+        Portfolio portfolio = adapter.findByIdForTrade(portfolioId, "T1").orElseThrow();
+        portfolio.sell("T1", quantity, new BigDecimal("12"));
+        adapter.save(portfolio);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsToBuy(String portfolioId, String ticker) {
+        entityManager.clear();
+        statistics.clear();
+
+        Portfolio portfolio = adapter.findByIdForTrade(portfolioId, ticker).orElseThrow();
+        portfolio.buy(ticker, 5, new BigDecimal("10"));
+        adapter.save(portfolio);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsToLoad(String portfolioId) {
+        entityManager.clear();
+        statistics.clear();
+
+        Portfolio portfolio = adapter.findAggregateById(portfolioId).orElseThrow();
+        for (Holding holding : portfolio.getHoldings()) {
+            holding.getLots().size();
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String portfolioWith(int holdings, int lotsPerHolding) {
+        Portfolio portfolio = Portfolio.create("Jane");
+        portfolio.deposit(new BigDecimal("1000000"));
+        for (int h = 0; h < holdings; h++) {
+            for (int l = 0; l < lotsPerHolding; l++) {
+                portfolio.buy("T" + h, 10, new BigDecimal("10"));
+            }
+        }
+        entityManager.persist(portfolio);
+        entityManager.flush();
+        return portfolio.getId();
+    }
+}
@@ -0,0 +1,126 @@
+package com.alfredorueda.portfolio.adapters.out.persistence;
+
+import com.alfredorueda.portfolio.application.port.in.dto.TransactionFilter;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionCursor;
+import com.alfredorueda.portfolio.application.port.out.dto.TransactionPage;
+import com.alfredorueda.portfolio.domain.Transaction;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persistence test for filtering and paging through a portfolio's transaction history.
+ */
+@DataJpaTest
+@Import(TransactionPersistenceAdapter.class)
+public class TransactionPersistenceAdapterTest {
+
+    @Autowired
+    private TransactionPersistenceAdapter adapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        adapter.save(Transaction.createDeposit("p1", new BigDecimal("5000")));
+        adapter.save(Transaction.createPurchase("p1", "AAPL", 10, new BigDecimal("150")));
+        adapter.save(Transaction.createPurchase("p1", "MSFT", 2, new BigDecimal("300")));
+        adapter.save(Transaction.createDeposit("p2", new BigDecimal("100")));
+        entityManager.flush();
+    }
+
+    @Test
+    public void testWithoutCriteriaReturnsOnlyThePortfolioTransactions() {
+        List<Transaction> transactions = adapter.findByPortfolioId(new TransactionFilter("p1"));
+
+        assertEquals(3, transactions.size());
+        assertTrue(transactions.stream().allMatch(t -> t.getPortfolioId().equals("p1")));
+    }
+
+    @Test
+    public void testCriteriaAreCombined() {
+        TransactionFilter filter = new TransactionFilter("p1")
+                .withType("PURCHASE")
+                .withAmountRange(new BigDecimal("1000"), null);
+
+        List<Transaction> transactions = adapter.findByPortfolioId(filter);
+
+        assertEquals(1, transactions.size());
+        assertEquals("AAPL", transactions.get(0).getTicker());
+    }
+
+    @Test
+    public void testDateRangeIncludesTheWholeEndDay() {
+        LocalDate today = LocalDate.now();
+
+        assertEquals(3, adapter.findByPortfolioId(new TransactionFilter("p1").withDateRange(today, today)).size());
+        assertEquals(0, adapter.findByPortfolioId(
+                new TransactionFilter("p1").withDateRange(today.plusDays(1), null)).size());
+        assertEquals(1, adapter.findByPortfolioId(
+                new TransactionFilter("p1").withTicker("MSFT").withDateRange(null, today)).size());
+    }
+
+    @Test
+    public void testPagesFollowEachOtherWithoutGapsOrOverlap() {
+        for (int i = 0; i < 8; i++) {
+            adapter.save(Transaction.createDeposit("p1", BigDecimal.valueOf(i + 1)));
+        }
+        // Read back what the database stored, as a later request would, rather than the saved instances
+        entityManager.flush();
+        entityManager.clear();
+        List<Transaction> expected = adapter.findByPortfolioId(new TransactionFilter("p1"));
+
+        List<Transaction> paged = new ArrayList<>();
+        TransactionCursor cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = adapter.findPageByPortfolioId(new TransactionFilter("p1"), cursor, 4);
+            assertTrue(page.transactions().size() <= 4);
+            paged.addAll(page.transactions());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected.stream().map(Transaction::getId).toList(),
+                paged.stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    public void testLastFullPageHasNoNextCursor() {
+        TransactionPage page = adapter.findPageByPortfolioId(new TransactionFilter("p1"), null, 3);
+
+        assertEquals(3, page.transactions().size());
+        assertFalse(page.next().isPresent());
+    }
+
+    @Test
+    public void testHistoryIndexesCoverThePageOrder() {
+        assertEquals(List.of("portfolio_id", "timestamp", "id"),
+                indexColumns("idx_transaction_portfolio_timestamp_id"));
+        assertEquals(List.of("portfolio_id", "ticker", "timestamp", "id"),
+                indexColumns("idx_transaction_portfolio_ticker_timestamp_id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> indexColumns(String indexName) {
+        return entityManager.createNativeQuery(
+                        "SELECT LOWER(COLUMN_NAME) FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                                + "WHERE LOWER(INDEX_NAME) = :name ORDER BY ORDINAL_POSITION")
+                .setParameter("name", indexName)
+                .getResultList();
+    }
+}
@@ -0,0 +1,224 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for the CachingStockPriceAdapter using a controllable clock and a
+ * delegate that returns an increasing price on every call.
+ */
+public class CachingStockPriceAdapterTest {
+
+    private MutableClock clock;
+    private CountingPricePort delegate;
+    private List<Runnable> pendingRefreshes;
+    private CachingStockPriceAdapter cache;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        delegate = new CountingPricePort();
+        pendingRefreshes = new ArrayList<>();
+        PriceCacheProperties properties = new PriceCacheProperties(
+                Duration.ofSeconds(10), Duration.ofSeconds(30), 2, Map.of("TSLA", Duration.ofSeconds(1)));
+        cache = new CachingStockPriceAdapter(delegate, properties, clock, pendingRefreshes::add);
+    }
+
+    @Test
+    public void testFreshPriceIsServedFromMemory() {
+        BigDecimal first = cache.fetchStockPrice("AAPL");
+        clock.advance(Duration.ofSeconds(5));
+        BigDecimal second = cache.fetchStockPrice("AAPL");
+
+        assertEquals(first, second);
+        assertEquals(1, delegate.calls);
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    public void testStalePriceIsServedWhileRefreshRunsInBackground() {
+        BigDecimal first = cache.fetchStockPrice("AAPL");
+        clock.advance(Duration.ofSeconds(15));
+
+        assertEquals(first, cache.fetchStockPrice("AAPL"));
+        assertEquals(first, cache.fetchStockPrice("AAPL"));
+        assertEquals(1, pendingRefreshes.size(), "Only one refresh should be scheduled per ticker");
+
+        pendingRefreshes.forEach(Runnable::run);
+
+        assertEquals(new BigDecimal("101"), cache.fetchStockPrice("AAPL"));
+        assertEquals(2, cache.stats().staleHits());
+    }
+
+    @Test
+    public void testExpiredPriceIsFetchedSynchronously() {
+        cache.fetchStockPrice("AAPL");
+        clock.advance(Duration.ofSeconds(45));
+
+        assertEquals(new BigDecimal("101"), cache.fetchStockPrice("AAPL"));
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    public void testPerTickerTtlOverride() {
+        cache.fetchStockPrice("TSLA");
+        clock.advance(Duration.ofSeconds(2));
+        cache.fetchStockPrice("TSLA");
+
+        assertEquals(1, cache.stats().staleHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTickerIsEvicted() {
+        cache.fetchStockPrice("AAPL");
+        clock.advance(Duration.ofSeconds(1));
+        cache.fetchStockPrice("MSFT");
+        clock.advance(Duration.ofSeconds(1));
+        cache.fetchStockPrice("AAPL");
+        clock.advance(Duration.ofSeconds(1));
+        cache.fetchStockPrice("GOOGL");
+
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+
+        int callsBefore = delegate.calls;
+        cache.fetchStockPrice("AAPL");
+        assertEquals(callsBefore, delegate.calls, "AAPL was recently used and should still be cached");
+    }
+
+    @Test
+    public void testRefreshAheadDoesNotCountAsUse() {
+        cache.fetchStockPrice("AAPL");
+        cache.fetchStockPrice("MSFT");
+        clock.advance(Duration.ofSeconds(15));
+        cache.refreshStockPrices(List.of("AAPL"), 1, PriceRequestPriority.BACKGROUND);
+
+        cache.fetchStockPrice("GOOGL");
+
+        int callsBefore = delegate.calls;
+        cache.fetchStockPrice("MSFT");
+        assertEquals(callsBefore, delegate.calls, "MSFT was used after AAPL and should still be cached");
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    public void testBatchFetchOnlyDelegatesMisses() {
+        cache.fetchStockPrice("AAPL");
+
+        BatchPriceResult result = cache.fetchStockPrices(List.of("AAPL", "MSFT", "MSFT"));
+
+        assertEquals(new BigDecimal("100"), result.priceOf("AAPL").orElseThrow());
+        assertEquals(new BigDecimal("101"), result.priceOf("MSFT").orElseThrow());
+        assertEquals(2, delegate.calls);
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    public void testRefreshAheadSkipsFreshTickersAndRespectsLimit() {
+        cache.fetchStockPrice("AAPL");
+
+        BatchPriceResult refreshed = cache.refreshStockPrices(
+                List.of("AAPL", "MSFT", "GOOG"), 1, PriceRequestPriority.BACKGROUND);
+
+        assertEquals(Map.of("MSFT", new BigDecimal("101")), refreshed.prices());
+        assertEquals(new BigDecimal("101"), cache.fetchStockPrice("MSFT"));
+        assertEquals(2, delegate.calls);
+        assertEquals(1, cache.stats().misses(), "Refreshes are not counted as misses");
+    }
+
+    @Test
+    public void testFallbackPriceIsCachedWithItsOwnAge() {
+        // The delegate can only answer with a price observed a minute ago, i.e. past the TTL
+        StockQuote lastKnown = new StockQuote("AAPL", new BigDecimal("90"), clock.instant().minus(Duration.ofMinutes(1)));
+        cache = new CachingStockPriceAdapter(new FallbackPricePort(lastKnown), new PriceCacheProperties(
+                Duration.ofSeconds(10), Duration.ofSeconds(30), 2, Map.of()), clock, pendingRefreshes::add);
+
+        assertEquals(new BigDecimal("90"), cache.fetchStockPrice("AAPL"));
+        assertEquals(new BigDecimal("90"), cache.fetchStockPrice("AAPL"));
+        assertEquals(new BigDecimal("90"), cache.fetchStockPrices(List.of("AAPL")).priceOf("AAPL").orElseThrow());
+
+        assertEquals(3, cache.stats().misses());
+        assertEquals(0, cache.stats().hits());
+        // Ahead-of-demand refreshes keep trying instead of taking the fallback for a fresh price
+        cache.refreshStockPrices(List.of("AAPL"), 1, PriceRequestPriority.BACKGROUND);
+        assertEquals(1, cache.refreshStockPrices(List.of("AAPL"), 1, PriceRequestPriority.BACKGROUND).prices().size());
+    }
+
+    private static final class FallbackPricePort implements StockPricePort {
+        private final StockQuote lastKnown;
+
+        private FallbackPricePort(StockQuote lastKnown) {
+            this.lastKnown = lastKnown;
+        }
+
+        @Override
+        public BigDecimal fetchStockPrice(String ticker) {
+            return lastKnown.price();
+        }
+
+        @Override
+        public StockQuote fetchStockQuote(String ticker, PriceRequestPriority priority) {
+            return lastKnown;
+        }
+
+        @Override
+        public BatchPriceResult fetchStockPrices(Collection<String> tickers) {
+            return new BatchPriceResult(Map.of(lastKnown.ticker(), lastKnown.price()), Map.of(),
+                    Map.of(lastKnown.ticker(), lastKnown.timestamp()));
+        }
+    }
+
+    private static final class CountingPricePort implements StockPricePort {
+        private int calls;
+
+        @Override
+        public BigDecimal fetchStockPrice(String ticker) {
+            return BigDecimal.valueOf(100 + calls++);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
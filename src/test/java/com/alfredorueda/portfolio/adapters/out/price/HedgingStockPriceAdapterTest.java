@@ -0,0 +1,161 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.PriceUnavailableException;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the HedgingStockPriceAdapter using providers whose answers the test controls.
+ */
+public class HedgingStockPriceAdapterTest {
+
+    private final HedgingProperties properties = new HedgingProperties(
+            0.95, Duration.ofMillis(20), Duration.ofMillis(10), Duration.ofSeconds(1), 50, 5, 2, Duration.ofSeconds(2),
+            Duration.ofMinutes(15));
+
+    private ControlledProvider primary;
+    private ControlledProvider secondary;
+    private LastKnownPriceStore lastKnownPrices;
+    private HedgingStockPriceAdapter adapter;
+
+    @BeforeEach
+    public void setUp() {
+        primary = new ControlledProvider();
+        secondary = new ControlledProvider();
+        lastKnownPrices = new LastKnownPriceStore();
+        adapter = new HedgingStockPriceAdapter(
+                new HedgingStockPriceAdapter.Provider("primary", primary),
+                new HedgingStockPriceAdapter.Provider("secondary", secondary),
+                lastKnownPrices,
+                properties,
+                Clock.systemUTC(),
+                Executors.newSingleThreadScheduledExecutor());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    public void testFastPrimaryIsNotHedged() {
+        primary.answer = CompletableFuture.completedFuture(new BigDecimal("150.00"));
+
+        assertEquals(new BigDecimal("150.00"), adapter.fetchStockPrice("AAPL", PriceRequestPriority.TRADE));
+        assertTrue(secondary.requests.isEmpty());
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedgedAndFirstAnswerWins() {
+        primary.answer = new CompletableFuture<>(); // never answers
+        secondary.answer = CompletableFuture.completedFuture(new BigDecimal("151.00"));
+
+        assertEquals(new BigDecimal("151.00"), adapter.fetchStockPrice("AAPL", PriceRequestPriority.TRADE));
+        assertEquals(List.of("AAPL"), secondary.requests);
+    }
+
+    @Test
+    public void testFailedPrimaryIsHedgedImmediately() {
+        primary.answer = CompletableFuture.failedFuture(new RuntimeException("Provider down"));
+        secondary.answer = CompletableFuture.completedFuture(new BigDecimal("152.00"));
+
+        assertEquals(new BigDecimal("152.00"), adapter.fetchStockPrice("AAPL"));
+    }
+
+    @Test
+    public void testStreamingRequestsAreNeverHedged() {
+        primary.answer = CompletableFuture.failedFuture(new RuntimeException("Provider down"));
+        secondary.answer = CompletableFuture.completedFuture(new BigDecimal("152.00"));
+        lastKnownPrices.record(new StockQuote("AAPL", new BigDecimal("149.00"), Instant.now()));
+
+        assertEquals(new BigDecimal("149.00"), adapter.fetchStockPrice("AAPL", PriceRequestPriority.STREAMING));
+        assertEquals(new BigDecimal("149.00"), adapter.fetchStockPrice("AAPL", PriceRequestPriority.BACKGROUND));
+        assertTrue(secondary.requests.isEmpty());
+    }
+
+    @Test
+    public void testBatchQuotesAtMostConfiguredTickersAtOnce() {
+        List<CompletableFuture<BigDecimal>> answers = new CopyOnWriteArrayList<>();
+        QuoteProvider slow = (ticker, priority) -> {
+            CompletableFuture<BigDecimal> answer = new CompletableFuture<>();
+            answers.add(answer);
+            return answer;
+        };
+        adapter.close();
+        adapter = new HedgingStockPriceAdapter(
+                new HedgingStockPriceAdapter.Provider("primary", slow),
+                null,
+                lastKnownPrices,
+                properties,
+                Clock.systemUTC(),
+                Executors.newSingleThreadScheduledExecutor());
+
+        CompletableFuture<BatchPriceResult> batch = CompletableFuture.supplyAsync(
+                () -> adapter.fetchStockPrices(List.of("AAPL", "MSFT", "TSLA", "NVDA", "AMZN")));
+        for (int answered = 0; answered < 5; answered++) {
+            int expected = answered;
+            // A ticker is only requested once an earlier one has been priced
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                while (answers.size() < Math.min(expected + 2, 5)) {
+                    Thread.onSpinWait();
+                }
+            });
+            assertEquals(Math.min(answered + 2, 5), answers.size());
+            answers.get(answered).complete(new BigDecimal("100.00"));
+        }
+
+        assertEquals(5, batch.join().prices().size());
+    }
+
+    @Test
+    public void testRecentLastKnownPriceIsUsedWhenAllProvidersFail() {
+        primary.answer = CompletableFuture.failedFuture(new RuntimeException("Provider down"));
+        secondary.answer = CompletableFuture.failedFuture(new RuntimeException("Provider down"));
+        Instant observedAt = Instant.now().minus(Duration.ofMinutes(5));
+        lastKnownPrices.record(new StockQuote("AAPL", new BigDecimal("149.00"), observedAt));
+        lastKnownPrices.record(new StockQuote("MSFT", new BigDecimal("301.00"), Instant.now().minus(Duration.ofHours(1))));
+
+        assertEquals(new BigDecimal("149.00"), adapter.fetchStockPrice("AAPL"));
+        assertThrows(PriceUnavailableException.class, () -> adapter.fetchStockPrice("MSFT"),
+                "A last known price older than the fallback maximum age must not be used");
+        assertThrows(PriceUnavailableException.class, () -> adapter.fetchStockPrice("TSLA"),
+                "Tickers without any known price must not be priced");
+
+        BatchPriceResult batch = adapter.fetchStockPrices(List.of("AAPL", "TSLA"));
+        assertEquals(new BigDecimal("149.00"), batch.prices().get("AAPL"));
+        assertTrue(batch.failures().containsKey("TSLA"));
+
+        // The fallback is reported with the time it was observed, not as a current price
+        assertEquals(observedAt, adapter.fetchStockQuote("AAPL", PriceRequestPriority.TRADE).timestamp());
+        assertEquals(observedAt, batch.quoteTimeOf("AAPL").orElseThrow());
+    }
+
+    private static final class ControlledProvider implements QuoteProvider {
+        private final List<String> requests = new CopyOnWriteArrayList<>();
+        private volatile CompletableFuture<BigDecimal> answer = new CompletableFuture<>();
+
+        @Override
+        public CompletableFuture<BigDecimal> quote(String ticker, PriceRequestPriority priority) {
+            requests.add(ticker);
+            return answer;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.alfredorueda.portfolio.adapters.out.price;
+
+import com.alfredorueda.portfolio.domain.StockQuote;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the PriceSnapshotStore writing to and restoring from a temporary directory.
+ */
+public class PriceSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testSnapshotRoundTripSkipsQuotesOlderThanMaxAge() throws Exception {
+        Path file = directory.resolve("snapshots/prices.bin");
+        PriceSnapshotProperties properties = new PriceSnapshotProperties(file, Duration.ofSeconds(30), Duration.ofMinutes(15));
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+        LastKnownPriceStore before = new LastKnownPriceStore();
+        before.record(new StockQuote("AAPL", new BigDecimal("150.1234"), NOW.minusSeconds(60)));
+        before.record(new StockQuote("MSFT", new BigDecimal("301.50"), NOW.minus(Duration.ofHours(2))));
+        new PriceSnapshotStore(before, properties, clock, quote -> { }).save();
+
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling("prices.bin.tmp")), "The temporary file is moved into place");
+
+        LastKnownPriceStore after = new LastKnownPriceStore();
+        List<StockQuote> restored = new ArrayList<>();
+        int count = new PriceSnapshotStore(after, properties, clock, restored::add).restore();
+
+        assertEquals(1, count);
+        assertEquals(new BigDecimal("150.1234"), after.find("AAPL").orElseThrow().price());
+        assertEquals(NOW.minusSeconds(60), after.find("AAPL").orElseThrow().timestamp());
+        assertTrue(after.find("MSFT").isEmpty(), "Quotes older than the maximum age are not restored");
+        assertEquals(List.of("AAPL"), restored.stream().map(StockQuote::ticker).toList());
+    }
+
+    @Test
+    public void testMissingOrCorruptSnapshotIsIgnored() throws Exception {
+        Path file = directory.resolve("prices.bin");
+        PriceSnapshotProperties properties = new PriceSnapshotProperties(file, Duration.ofSeconds(30), Duration.ofMinutes(15));
+        PriceSnapshotStore store = new PriceSnapshotStore(
+                new LastKnownPriceStore(), properties, Clock.fixed(NOW, ZoneOffset.UTC), quote -> { });
+
+        assertEquals(0, store.restore());
+
+        Files.writeString(file, "not a snapshot");
+        assertEquals(0, store.restore());
+    }
+}
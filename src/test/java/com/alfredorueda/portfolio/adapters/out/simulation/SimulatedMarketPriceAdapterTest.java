@@ -0,0 +1,109 @@
+package com.alfredorueda.portfolio.adapters.out.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the SimulatedMarketPriceAdapter using fixed clocks.
+ */
+public class SimulatedMarketPriceAdapterTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final MarketSimulatorProperties properties = new MarketSimulatorProperties(
+            7L, 0.05, 0.4, Duration.ofSeconds(1), Map.of("AAPL", new BigDecimal("150.00")));
+
+    @Test
+    public void testPriceStartsAtInitialPriceAndHoldsWithinATick() {
+        MutableClock clock = new MutableClock(START);
+        SimulatedMarketPriceAdapter market = new SimulatedMarketPriceAdapter(properties, clock);
+
+        assertEquals(new BigDecimal("150.00"), market.fetchStockPrice("AAPL"));
+        clock.advance(Duration.ofMillis(999));
+        assertEquals(new BigDecimal("150.00"), market.fetchStockPrice("AAPL"));
+    }
+
+    @Test
+    public void testPricesMoveOverTime() {
+        MutableClock clock = new MutableClock(START);
+        SimulatedMarketPriceAdapter market = new SimulatedMarketPriceAdapter(properties, clock);
+
+        BigDecimal opening = market.fetchStockPrice("AAPL");
+        clock.advance(Duration.ofDays(1));
+        BigDecimal later = market.fetchStockPrice("AAPL");
+
+        assertNotEquals(opening, later);
+        assertTrue(later.signum() > 0);
+    }
+
+    @Test
+    public void testSameSeedYieldsSamePathRegardlessOfReadFrequency() {
+        MutableClock frequentClock = new MutableClock(START);
+        SimulatedMarketPriceAdapter frequentlyRead = new SimulatedMarketPriceAdapter(properties, frequentClock);
+        for (int i = 0; i < 600; i++) {
+            frequentClock.advance(Duration.ofSeconds(1));
+            frequentlyRead.fetchStockPrice("MSFT");
+        }
+
+        MutableClock rareClock = new MutableClock(START);
+        SimulatedMarketPriceAdapter rarelyRead = new SimulatedMarketPriceAdapter(properties, rareClock);
+        rareClock.advance(Duration.ofMinutes(10));
+
+        assertEquals(frequentlyRead.fetchStockPrice("MSFT"), rarelyRead.fetchStockPrice("MSFT"));
+    }
+
+    @Test
+    public void testFirstReadLongAfterStartDoesNotReplayEveryTick() {
+        MutableClock clock = new MutableClock(START);
+        SimulatedMarketPriceAdapter market = new SimulatedMarketPriceAdapter(properties, clock);
+        // Five years of one-second ticks: about 158 million steps if they were replayed one by one
+        clock.advance(Duration.ofDays(5 * 365));
+
+        BigDecimal price = assertTimeout(Duration.ofMillis(200), () -> market.fetchStockPrice("NVDA"));
+
+        assertTrue(price.signum() > 0);
+        MutableClock replayClock = new MutableClock(START);
+        SimulatedMarketPriceAdapter replay = new SimulatedMarketPriceAdapter(properties, replayClock);
+        replayClock.advance(Duration.ofDays(5 * 365));
+        assertEquals(price, replay.fetchStockPrice("NVDA"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
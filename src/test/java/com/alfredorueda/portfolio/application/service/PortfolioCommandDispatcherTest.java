@@ -0,0 +1,208 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.application.port.in.PortfolioBusyException;
+import com.alfredorueda.portfolio.application.port.in.PortfolioManagementUseCase;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.domain.CostBasisMethod;
+import com.alfredorueda.portfolio.domain.Portfolio;
+import com.alfredorueda.portfolio.domain.SellResult;
+import com.alfredorueda.portfolio.domain.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the per-portfolio command lanes of the PortfolioCommandDispatcher.
+ */
+public class PortfolioCommandDispatcherTest {
+
+    private final RecordingUseCases useCases = new RecordingUseCases();
+    private volatile StockPricePort prices = ticker -> BigDecimal.TEN;
+    private final List<PortfolioCommandDispatcher> dispatchers = new ArrayList<>();
+    private final PortfolioCommandDispatcher dispatcher = dispatcher(1000);
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        dispatchers.forEach(PortfolioCommandDispatcher::close);
+    }
+
+    @Test
+    public void testCommandsForTheSamePortfolioRunOneAtATime() throws Exception {
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            calls.add(callers.submit(() -> dispatcher.deposit("p1", BigDecimal.ONE)));
+        }
+        for (Future<?> call : calls) {
+            call.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(200, useCases.deposits.get("p1").get());
+        assertEquals(1, useCases.maxConcurrent.get());
+    }
+
+    @Test
+    public void testCommandsForDifferentPortfoliosRunInParallel() throws Exception {
+        // The first buy waits for the second; were they serialized this would never finish
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        useCases.onBuy = portfolioId -> {
+            if (portfolioId.equals("p1")) {
+                await(secondStarted);
+            } else {
+                secondStarted.countDown();
+            }
+        };
+
+        Future<?> first = callers.submit(() -> dispatcher.buyStock("p1", "AAPL", 1));
+        Future<?> second = callers.submit(() -> dispatcher.buyStock("p2", "AAPL", 1));
+
+        second.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFailedCommandIsRethrownAndDoesNotBlockTheLane() {
+        useCases.onBuy = portfolioId -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        };
+
+        assertThrows(InsufficientFundsException.class, () -> dispatcher.buyStock("p1", "AAPL", 1));
+
+        dispatcher.deposit("p1", BigDecimal.ONE);
+        assertEquals(1, useCases.deposits.get("p1").get());
+    }
+
+    @Test
+    public void testFullLaneRejectsCommandsWithoutQueueingThem() throws Exception {
+        // A lane of one: the running command fills it
+        PortfolioCommandDispatcher single = dispatcher(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        useCases.onBuy = portfolioId -> {
+            started.countDown();
+            await(release);
+        };
+
+        Future<?> running = callers.submit(() -> single.buyStock("p1", "AAPL", 1));
+        await(started);
+
+        assertThrows(PortfolioBusyException.class, () -> single.deposit("p1", BigDecimal.ONE));
+        single.deposit("p2", BigDecimal.ONE);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        single.deposit("p1", BigDecimal.ONE);
+        assertEquals(1, useCases.deposits.get("p1").get());
+    }
+
+    @Test
+    public void testTradesArePricedBeforeTheyWaitInTheLane() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch priced = new CountDownLatch(2);
+        prices = ticker -> {
+            priced.countDown();
+            return BigDecimal.TEN;
+        };
+        useCases.onBuy = portfolioId -> await(release);
+
+        Future<?> first = callers.submit(() -> dispatcher.buyStock("p1", "AAPL", 1));
+        Future<?> second = callers.submit(() -> dispatcher.buyStock("p1", "MSFT", 1));
+
+        // Both trades are priced while the first one still holds the lane
+        assertTrue(priced.await(5, TimeUnit.SECONDS));
+        assertFalse(first.isDone());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, useCases.buys.get());
+    }
+
+    private PortfolioCommandDispatcher dispatcher(int maxQueued) {
+        PortfolioCommandDispatcher created = new PortfolioCommandDispatcher(
+                ticker -> prices.fetchStockPrice(ticker), useCases, useCases, maxQueued);
+        dispatchers.add(created);
+        return created;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class RecordingUseCases implements TradeExecutor, PortfolioManagementUseCase {
+        private final Map<String, AtomicInteger> deposits = new ConcurrentHashMap<>();
+        private final AtomicInteger buys = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private volatile Consumer<String> onBuy = portfolioId -> { };
+
+        @Override
+        public void buy(String portfolioId, String ticker, int quantity, BigDecimal price) {
+            onBuy.accept(portfolioId);
+            buys.incrementAndGet();
+        }
+
+        @Override
+        public SellResult sell(String portfolioId, String ticker, int quantity, List<String> lotIds, BigDecimal price) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Portfolio createPortfolio(String ownerName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Portfolio createPortfolio(String ownerName, CostBasisMethod costBasisMethod) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Portfolio getPortfolio(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deposit(String portfolioId, BigDecimal amount) {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            // Unsynchronized read-modify-write: only safe because the lane serializes deposits
+            AtomicInteger count = deposits.computeIfAbsent(portfolioId, id -> new AtomicInteger());
+            int before = count.get();
+            Thread.yield();
+            count.set(before + 1);
+            running.decrementAndGet();
+        }
+
+        @Override
+        public void withdraw(String portfolioId, BigDecimal amount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void changeCostBasisMethod(String portfolioId, CostBasisMethod costBasisMethod) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
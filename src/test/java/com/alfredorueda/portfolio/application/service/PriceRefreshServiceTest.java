@@ -0,0 +1,67 @@
+package com.alfredorueda.portfolio.application.service;
+
+import com.alfredorueda.portfolio.application.port.out.PriceRequestPriority;
+import com.alfredorueda.portfolio.application.port.out.StockPricePort;
+import com.alfredorueda.portfolio.application.port.out.dto.BatchPriceResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the PriceRefreshService with an in-memory list of held tickers.
+ */
+public class PriceRefreshServiceTest {
+
+    private final RecordingPricePort pricePort = new RecordingPricePort();
+    private List<String> heldTickers = List.of("AAPL", "MSFT", "TSLA");
+    private final PriceRefreshService service = new PriceRefreshService(() -> heldTickers, pricePort);
+
+    @Test
+    public void testRefreshesHeldTickersInBackgroundWithinBudget() {
+        BatchPriceResult result = service.refreshHeldPrices(2);
+
+        assertEquals(1, pricePort.refreshes.size());
+        Refresh refresh = pricePort.refreshes.get(0);
+        assertEquals(List.of("AAPL", "MSFT", "TSLA"), refresh.tickers());
+        assertEquals(2, refresh.limit());
+        assertEquals(PriceRequestPriority.BACKGROUND, refresh.priority());
+        assertEquals(Map.of("AAPL", BigDecimal.TEN, "MSFT", BigDecimal.TEN), result.prices());
+    }
+
+    @Test
+    public void testNothingIsFetchedWithoutBudgetOrHeldTickers() {
+        assertTrue(service.refreshHeldPrices(0).prices().isEmpty());
+
+        heldTickers = List.of();
+        assertTrue(service.refreshHeldPrices(5).prices().isEmpty());
+
+        assertTrue(pricePort.refreshes.isEmpty());
+    }
+
+    private record Refresh(List<String> tickers, int limit, PriceRequestPriority priority) {
+    }
+
+    private static final class RecordingPricePort implements StockPricePort {
+        private final List<Refresh> refreshes = new ArrayList<>();
+
+        @Override
+        public BigDecimal fetchStockPrice(String ticker) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BatchPriceResult refreshStockPrices(List<String> tickers, int limit, PriceRequestPriority priority) {
+            refreshes.add(new Refresh(tickers, limit, priority));
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            tickers.stream().limit(limit).forEach(ticker -> prices.put(ticker, BigDecimal.TEN));
+            return new BatchPriceResult(prices, Map.of());
+        }
+    }
+}
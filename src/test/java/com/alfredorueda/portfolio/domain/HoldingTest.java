@@ -0,0 +1,151 @@
+package com.alfredorueda.portfolio.domain;
+
+import com.alfredorueda.portfolio.domain.exception.InvalidLotSelectionException;
+import com.alfredorueda.portfolio.domain.exception.InvalidQuantityException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for Holding's lot accounting and running totals.
+ */
+public class HoldingTest {
+
+    @Test
+    public void testTotalsFollowBuysAndSells() {
+        Holding holding = Holding.create("AAPL");
+        holding.buy(10, new BigDecimal("100"));
+        holding.buy(10, new BigDecimal("130"));
+
+        assertEquals(20, holding.getTotalShares());
+        assertEquals(new BigDecimal("2300.0000"), holding.getTotalCostBasis());
+        assertEquals(0, new BigDecimal("115").compareTo(holding.getAverageCost()));
+
+        SellResult result = holding.sell(15, new BigDecimal("140"));
+
+        assertEquals(new BigDecimal("1650.0000"), result.costBasis());
+        assertEquals(5, holding.getTotalShares());
+        assertEquals(new BigDecimal("650.0000"), holding.getTotalCostBasis());
+        assertEquals(0, new BigDecimal("130").compareTo(holding.getAverageCost()));
+
+        holding.sell(5, new BigDecimal("140"));
+        assertTrue(holding.isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(holding.getAverageCost()));
+    }
+
+    @Test
+    public void testSalesConsumeOldestLotsAndExposeOnlyOpenLots() {
+        Holding holding = Holding.create("AAPL");
+        holding.buy(10, new BigDecimal("100"));
+        holding.buy(10, new BigDecimal("110"));
+        holding.buy(10, new BigDecimal("120"));
+        holding.buy(10, new BigDecimal("130"));
+
+        assertEquals(new BigDecimal("1550.0000"), holding.sell(15, new BigDecimal("150")).costBasis());
+        assertEquals(3, holding.getLots().size());
+        assertEquals(5, holding.getLots().get(0).getRemaining());
+
+        assertEquals(new BigDecimal("1150.0000"), holding.sell(10, new BigDecimal("150")).costBasis());
+        assertEquals(2, holding.getLots().size());
+        assertEquals(new BigDecimal("120.0000"), holding.getLots().get(0).getUnitPrice());
+        assertEquals(5, holding.getLots().get(0).getRemaining());
+        assertEquals(15, holding.getTotalShares());
+    }
+
+    @Test
+    public void testCostBasisMethodsPickDifferentLots() {
+        assertEquals(new BigDecimal("1300.0000"), holdingWithThreeLots().sell(10, new BigDecimal("150"),
+                CostBasisStrategy.lastInFirstOut()).costBasis());
+        assertEquals(new BigDecimal("1300.0000"), holdingWithThreeLots().sell(10, new BigDecimal("150"),
+                CostBasisStrategy.highestCostFirst()).costBasis());
+        // The 20 shares kept are carried at 106.6667 each, the sale takes what is left of 3200
+        assertEquals(new BigDecimal("1066.6660"), holdingWithThreeLots().sell(10, new BigDecimal("150"),
+                CostBasisStrategy.averageCost()).costBasis());
+    }
+
+    @Test
+    public void testSwitchingAwayFromAverageCostKeepsTheCostBasisConsistent() {
+        Holding holding = Holding.create("AAPL");
+        holding.buy(10, new BigDecimal("100"));
+        holding.buy(10, new BigDecimal("200"));
+
+        assertEquals(new BigDecimal("1500.0000"), holding.sell(10, new BigDecimal("150"),
+                CostBasisStrategy.averageCost()).costBasis());
+        assertEquals(new BigDecimal("150.0000"), holding.getLots().get(0).getUnitPrice());
+
+        SellResult result = holding.sell(10, new BigDecimal("150"), CostBasisStrategy.firstInFirstOut());
+
+        assertEquals(new BigDecimal("1500.0000"), result.costBasis());
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.profit()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(holding.getTotalCostBasis()));
+        assertTrue(holding.isEmpty());
+    }
+
+    @Test
+    public void testHighestCostFirstAfterAverageCostSeesTheRepricedLots() {
+        Holding holding = holdingWithThreeLots();
+        holding.sell(1, new BigDecimal("150"), CostBasisStrategy.highestCostFirst());
+        // The 29 shares left cost 3070; the 20 kept are re-priced at 105.8621 each
+        holding.sell(9, new BigDecimal("150"), CostBasisStrategy.averageCost());
+        holding.buy(5, new BigDecimal("110"));
+
+        assertEquals(new BigDecimal("550.0000"), holding.sell(5, new BigDecimal("150"),
+                CostBasisStrategy.highestCostFirst()).costBasis());
+        assertEquals(new BigDecimal("2117.2420"), holding.getTotalCostBasis());
+    }
+
+    @Test
+    public void testLifoAndHifoKeepTheRemainingLotsConsistent() {
+        Holding holding = holdingWithThreeLots();
+
+        holding.sell(15, new BigDecimal("150"), CostBasisStrategy.lastInFirstOut());
+        assertEquals(2, holding.getLots().size());
+        assertEquals(5, holding.getLots().get(1).getRemaining());
+
+        // 5 left at 90, 10 at 100: HIFO takes from the 100 lot
+        assertEquals(new BigDecimal("400.0000"), holding.sell(4, new BigDecimal("150"),
+                CostBasisStrategy.highestCostFirst()).costBasis());
+        assertEquals(new BigDecimal("1050.0000"), holding.getTotalCostBasis());
+        assertEquals(11, holding.getTotalShares());
+    }
+
+    @Test
+    public void testSpecificLotsAreValidatedBeforeAnySharesAreSold() {
+        Holding holding = holdingWithThreeLots();
+        String newestLot = holding.getLots().get(2).getId();
+        String oldestLot = holding.getLots().get(0).getId();
+
+        assertThrows(InvalidLotSelectionException.class, () -> holding.sell(25, new BigDecimal("150"),
+                CostBasisStrategy.specificLots(List.of(newestLot, oldestLot))));
+        assertThrows(InvalidLotSelectionException.class, () -> holding.sell(1, new BigDecimal("150"),
+                CostBasisStrategy.specificLots(List.of("unknown"))));
+        assertEquals(30, holding.getTotalShares());
+
+        SellResult result = holding.sell(15, new BigDecimal("150"),
+                CostBasisStrategy.specificLots(List.of(newestLot, oldestLot)));
+        assertEquals(new BigDecimal("1800.0000"), result.costBasis());
+        assertEquals(5, holding.getLots().get(0).getRemaining());
+    }
+
+    @Test
+    public void testCannotSellMoreThanHeld() {
+        Holding holding = Holding.create("AAPL");
+        holding.buy(3, new BigDecimal("100"));
+
+        assertThrows(InvalidQuantityException.class, () -> holding.sell(4, new BigDecimal("100")));
+        assertEquals(3, holding.getTotalShares());
+    }
+
+    private static Holding holdingWithThreeLots() {
+        Holding holding = Holding.create("AAPL");
+        holding.buy(10, new BigDecimal("100"));
+        holding.buy(10, new BigDecimal("90"));
+        holding.buy(10, new BigDecimal("130"));
+        return holding;
+    }
+}
@@ -0,0 +1,42 @@
+package com.alfredorueda.portfolio.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the fixed-point Money value object.
+ */
+public class MoneyTest {
+
+    @Test
+    public void testConversionToAndFromBigDecimal() {
+        assertEquals(new BigDecimal("123.4500"), Money.of(new BigDecimal("123.45")).toBigDecimal());
+        assertEquals(1_234_500, Money.of(new BigDecimal("123.45")).units());
+        assertEquals(Money.ofUnits(2), Money.of(new BigDecimal("0.00015")), "Rounds half-even to four places");
+        assertEquals(Money.of(new BigDecimal("-7.5")), Money.ZERO.minus(Money.of(new BigDecimal("7.50"))));
+    }
+
+    @Test
+    public void testArithmetic() {
+        Money price = Money.of(new BigDecimal("10.25"));
+
+        assertEquals(Money.of(new BigDecimal("41")), price.times(4));
+        assertEquals(Money.of(new BigDecimal("3.3333")), Money.of(new BigDecimal("10")).dividedBy(3));
+        assertEquals(Money.ofUnits(2), Money.ofUnits(5).dividedBy(2), "Ties round to even");
+        assertEquals(Money.ofUnits(-2), Money.ofUnits(-5).dividedBy(2));
+        assertEquals(Money.ofUnits(-4), Money.ofUnits(-7).dividedBy(2));
+    }
+
+    @Test
+    public void testOverflowIsDetected() {
+        Money large = Money.ofUnits(Long.MAX_VALUE / 2 + 1);
+
+        assertThrows(ArithmeticException.class, () -> large.plus(large));
+        assertThrows(ArithmeticException.class, () -> large.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e20")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.alfredorueda.portfolio.domain;
+
+import com.alfredorueda.portfolio.domain.exception.HoldingNotFoundException;
+import com.alfredorueda.portfolio.domain.exception.InvalidLotSelectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the Portfolio aggregate and its ticker index of holdings.
+ */
+public class PortfolioTest {
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    public void setUp() {
+        portfolio = Portfolio.create("Jane");
+        portfolio.deposit(new BigDecimal("10000"));
+    }
+
+    @Test
+    public void testBuyingTheSameTickerTwiceAddsToOneHolding() {
+        portfolio.buy("AAPL", 5, new BigDecimal("100"));
+        portfolio.buy("AAPL", 3, new BigDecimal("110"));
+        portfolio.buy("MSFT", 2, new BigDecimal("200"));
+
+        assertEquals(2, portfolio.getHoldings().size());
+        assertEquals(8, portfolio.findHolding("AAPL").orElseThrow().getTotalShares());
+        assertEquals(new BigDecimal("8770.0000"), portfolio.getBalance());
+    }
+
+    @Test
+    public void testSellingAllSharesRemovesTheHolding() {
+        portfolio.buy("AAPL", 5, new BigDecimal("100"));
+
+        SellResult result = portfolio.sell("AAPL", 5, new BigDecimal("120"));
+
+        assertEquals(new BigDecimal("100.0000"), result.profit());
+        assertTrue(portfolio.findHolding("AAPL").isEmpty());
+        assertTrue(portfolio.isEmpty());
+        assertThrows(HoldingNotFoundException.class,
+                () -> portfolio.sell("AAPL", 1, new BigDecimal("120")));
+
+        portfolio.buy("AAPL", 1, new BigDecimal("100"));
+        assertEquals(1, portfolio.findHolding("AAPL").orElseThrow().getTotalShares());
+    }
+
+    @Test
+    public void testSalesFollowThePortfolioCostBasisMethod() {
+        portfolio.changeCostBasisMethod(CostBasisMethod.HIFO);
+        portfolio.buy("AAPL", 5, new BigDecimal("100"));
+        portfolio.buy("AAPL", 5, new BigDecimal("120"));
+
+        assertEquals(new BigDecimal("240.0000"), portfolio.sell("AAPL", 2, new BigDecimal("130")).costBasis());
+
+        portfolio.changeCostBasisMethod(CostBasisMethod.SPECIFIC_LOT);
+        assertThrows(InvalidLotSelectionException.class,
+                () -> portfolio.sell("AAPL", 1, new BigDecimal("130")));
+
+        String cheapLot = portfolio.findHolding("AAPL").orElseThrow().getLots().get(0).getId();
+        assertEquals(new BigDecimal("100.0000"),
+                portfolio.sell("AAPL", 1, new BigDecimal("130"), List.of(cheapLot)).costBasis());
+    }
+
+    @Test
+    public void testHoldingIdentityIsItsId() {
+        assertEquals(new Holding("h-1", "AAPL"), new Holding("h-1", "MSFT"));
+        assertEquals(new Holding("h-1", "AAPL").hashCode(), new Holding("h-1", "MSFT").hashCode());
+        assertNotEquals(new Holding("h-1", "AAPL"), new Holding("h-2", "AAPL"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.alfredorueda.portfolio.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the time-ordered UUID generator.
+ */
+public class UuidV7GeneratorTest {
+
+    @Test
+    public void testIdsAreVersion7AndCarryTheTimestamp() {
+        Instant now = Instant.parse("2024-01-01T10:00:00Z");
+        UUID uuid = new UuidV7Generator(Clock.fixed(now, ZoneOffset.UTC)).nextUuid();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(now.toEpochMilli(), uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    public void testIdsIncreaseWithinTheSameMillisecond() {
+        // A fixed clock forces every id into one millisecond, overflowing the counter
+        UuidV7Generator generator = new UuidV7Generator(
+                Clock.fixed(Instant.parse("2024-01-01T10:00:00Z"), ZoneOffset.UTC));
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testIdsIncreaseAcrossThreads() throws Exception {
+        // Every command runs on its own virtual thread; ids must still follow each other
+        UuidV7Generator generator = new UuidV7Generator(
+                Clock.fixed(Instant.parse("2024-01-01T10:00:00Z"), ZoneOffset.UTC));
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 1_000; i++) {
+            AtomicReference<String> next = new AtomicReference<>();
+            Thread.ofVirtual().start(() -> next.set(generator.nextId())).join();
+            assertTrue(next.get().compareTo(previous) > 0, next.get() + " should sort after " + previous);
+            previous = next.get();
+        }
+    }
+
+    @Test
+    public void testConcurrentThreadsNeverShareATimestampAndCounter() throws Exception {
+        UuidV7Generator generator = new UuidV7Generator(
+                Clock.fixed(Instant.parse("2024-01-01T10:00:00Z"), ZoneOffset.UTC));
+        Set<Long> mostSignificantBits = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.submit(() -> mostSignificantBits.add(generator.nextUuid().getMostSignificantBits()));
+            }
+        }
+
+        assertEquals(10_000, mostSignificantBits.size());
+    }
+}